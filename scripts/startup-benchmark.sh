@@ -0,0 +1,112 @@
+#!/usr/bin/env bash
+# Startup benchmark: time from JVM launch to the first successful POST /api/auth/login, and resident memory
+# at that moment, for each startup mode. Needs Postgres and Redis up and a build from `mvn -Paot-cds package`.
+# See docs/STARTUP.md.
+set -euo pipefail
+
+APP_DIR=${APP_DIR:-target/application}
+JAVA=${JAVA:-java}
+JAVA_OPTS=${JAVA_OPTS:--Xmx512m}
+MODES=${MODES:-jvm aot cds aot-cds}
+RUNS=${RUNS:-5}
+PORT=${PORT:-8081}
+BENCH_USERNAME=${BENCH_USERNAME:-startupbench}
+BENCH_PASSWORD=${BENCH_PASSWORD:-startupbench}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-120}
+ARCHIVE=${ARCHIVE:-$(ls "$APP_DIR"/application.jsa "$APP_DIR"/application.aot 2>/dev/null | head -n 1 || true)}
+JAR=$(ls "$APP_DIR"/*.jar | head -n 1)
+BASE_URL="http://localhost:$PORT/api/auth"
+# Every run logs in with the same account from the same IP; keep the rate limiter out of the measurement
+APP_ARGS=(--server.port="$PORT" --auth.rate-limit.enabled=false)
+
+mode_options() {
+  local archive_option
+  case "$ARCHIVE" in
+    *.aot) archive_option="-XX:AOTCache=$ARCHIVE" ;;
+    *) archive_option="-XX:SharedArchiveFile=$ARCHIVE" ;;
+  esac
+  case "$1" in
+    jvm) echo "" ;;
+    aot) echo "-Dspring.aot.enabled=true" ;;
+    cds) echo "$archive_option" ;;
+    aot-cds) echo "-Dspring.aot.enabled=true $archive_option" ;;
+    *) echo "Unknown mode: $1" >&2; exit 1 ;;
+  esac
+}
+
+now_millis() {
+  echo $(( $(date +%s%N) / 1000000 ))
+}
+
+status_of() {
+  curl -s -o /dev/null -w '%{http_code}' "$@" || true
+}
+
+login_status() {
+  status_of -X POST "$BASE_URL/login" -H 'Content-Type: application/json' \
+    -d "{\"username\":\"$BENCH_USERNAME\",\"password\":\"$BENCH_PASSWORD\"}"
+}
+
+stop_app() {
+  kill -TERM "$1" 2>/dev/null || true
+  wait "$1" 2>/dev/null || true
+}
+
+# Starts the application, waits until the predicate returns 0 and prints "<millis> <rss KiB>"
+run_once() {
+  local options=$1 predicate=$2 start pid deadline elapsed rss
+  start=$(now_millis)
+  # shellcheck disable=SC2086
+  (cd "$APP_DIR" && exec "$JAVA" $JAVA_OPTS $options -jar "$(basename "$JAR")" "${APP_ARGS[@]}") >"$APP_DIR/startup-benchmark.log" 2>&1 &
+  pid=$!
+  deadline=$(( start + TIMEOUT_SECONDS * 1000 ))
+  until "$predicate"; do
+    if ! kill -0 "$pid" 2>/dev/null || (( $(now_millis) > deadline )); then
+      stop_app "$pid"
+      echo "Application did not become ready, see $APP_DIR/startup-benchmark.log" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  elapsed=$(( $(now_millis) - start ))
+  rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+  stop_app "$pid"
+  echo "$elapsed $rss"
+}
+
+logged_in() {
+  [[ $(login_status) == 200 ]]
+}
+
+registered() {
+  local status
+  status=$(status_of -X POST "$BASE_URL/register" -H 'Content-Type: application/json' \
+    -d "{\"username\":\"$BENCH_USERNAME\",\"email\":\"$BENCH_USERNAME@example.com\",\"password\":\"$BENCH_PASSWORD\"}")
+  [[ $status != 000 ]] && logged_in
+}
+
+median() {
+  sort -n | awk '{ values[NR] = $1 } END { print (NR % 2) ? values[(NR + 1) / 2] : int((values[NR / 2] + values[NR / 2 + 1]) / 2) }'
+}
+
+if [[ -z "$ARCHIVE" && "$MODES" == *cds* ]]; then
+  echo "No CDS archive in $APP_DIR, build with: mvn -Paot-cds package" >&2
+  exit 1
+fi
+
+# Make sure the benchmark account exists and warm the OS page cache; this run is not reported
+run_once "" registered >/dev/null
+
+echo "| Mode | Time to first login (ms, median of $RUNS) | RSS (MiB, median) |"
+echo "|------|------------------------------------------|-------------------|"
+for mode in $MODES; do
+  options=$(mode_options "$mode") || exit 1
+  times=() rss=()
+  for (( i = 0; i < RUNS; i++ )); do
+    read -r elapsed resident < <(run_once "$options" logged_in) || true
+    [[ -n ${elapsed:-} ]] || exit 1
+    times+=("$elapsed")
+    rss+=("$resident")
+  done
+  echo "| $mode | $(printf '%s\n' "${times[@]}" | median) | $(( $(printf '%s\n' "${rss[@]}" | median) / 1024 )) |"
+done
@@ -0,0 +1,44 @@
+package vn.com.nws.cms.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+import vn.com.nws.cms.common.dto.ApiResponse;
+import vn.com.nws.cms.modules.auth.api.dto.TokenResponse;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    private JsonMapper jsonMapper;
+    private ApiResponse<TokenResponse> response;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        TokenResponse tokenResponse = TokenResponse.builder()
+                .accessToken(AuthFixtures.jwtProvider().generateToken(AuthFixtures.authentication()))
+                .refreshToken("3f0b8c52-6d1e-4a8f-9b57-2c4e1d7a9f10")
+                .tokenType("Bearer")
+                .expiresIn(3600L)
+                .username(AuthFixtures.USERNAME)
+                .role("ROLE_STUDENT")
+                .build();
+        response = ApiResponse.success("Login successful", tokenResponse);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return jsonMapper.writeValueAsBytes(response);
+    }
+}
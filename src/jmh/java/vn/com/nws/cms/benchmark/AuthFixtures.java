@@ -0,0 +1,53 @@
+package vn.com.nws.cms.benchmark;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+import vn.com.nws.cms.common.config.JwtConfig;
+import vn.com.nws.cms.common.security.JwtProvider;
+
+import java.util.List;
+
+/**
+ * Builds the auth components the same way the application context does, without starting Spring.
+ */
+final class AuthFixtures {
+
+    static final String SECRET = "12345678901234567890123456789012";
+    static final long EXPIRATION_MILLIS = 3_600_000;
+    static final String USERNAME = "student1";
+
+    private AuthFixtures() {
+    }
+
+    static JwtConfig jwtConfig() {
+        return new JwtConfig(SECRET);
+    }
+
+    static JwtProvider jwtProvider(boolean fastIssuer) {
+        JwtConfig config = jwtConfig();
+        JwtProvider provider = new JwtProvider(config.jwtEncoder(), config.jwtTokenIssuer());
+        ReflectionTestUtils.setField(provider, "jwtExpiration", EXPIRATION_MILLIS);
+        ReflectionTestUtils.setField(provider, "fastIssuerEnabled", fastIssuer);
+        return provider;
+    }
+
+    static JwtProvider jwtProvider() {
+        return jwtProvider(true);
+    }
+
+    static UserDetails userDetails() {
+        return User.withUsername(USERNAME)
+                .password("{noop}unused")
+                .authorities(List.of(new SimpleGrantedAuthority("ROLE_STUDENT")))
+                .build();
+    }
+
+    static Authentication authentication() {
+        UserDetails principal = userDetails();
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+}
@@ -0,0 +1,57 @@
+package vn.com.nws.cms.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import vn.com.nws.cms.common.security.JwtProvider;
+import vn.com.nws.cms.common.security.JwtTokenIssuer;
+
+import java.util.Collection;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtProviderBenchmark {
+
+    @Param({"true", "false"})
+    private boolean fastIssuer;
+
+    private JwtProvider jwtProvider;
+    private JwtTokenIssuer jwtTokenIssuer;
+    private Authentication authentication;
+    private Collection<? extends GrantedAuthority> authorities;
+
+    @Setup
+    public void setUp() {
+        jwtProvider = AuthFixtures.jwtProvider(fastIssuer);
+        jwtTokenIssuer = AuthFixtures.jwtConfig().jwtTokenIssuer();
+        authentication = AuthFixtures.authentication();
+        authorities = authentication.getAuthorities();
+    }
+
+    @Benchmark
+    public String generateTokenFromAuthentication() {
+        return jwtProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String generateTokenFromUsername() {
+        return jwtProvider.generateToken(AuthFixtures.USERNAME);
+    }
+
+    @Benchmark
+    public String buildScope() {
+        return fastIssuer ? jwtTokenIssuer.scopeOf(authorities) : JwtProvider.buildScope(authorities);
+    }
+}
@@ -0,0 +1,6 @@
+package vn.com.nws.cms.common.audit;
+
+import java.time.Instant;
+
+public record AuditEvent(AuditEventType type, String username, String clientIp, String detail, Instant occurredAt) {
+}
@@ -0,0 +1,50 @@
+package vn.com.nws.cms.common.audit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes audit events as one multi-row statement per batch (arrays bound once, expanded by {@code unnest}),
+ * so a batch of any size is a single round trip.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditEventRepository {
+
+    private static final String INSERT_EVENTS = """
+            INSERT INTO audit_events (event_type, username, client_ip, detail, occurred_at)
+            SELECT e.event_type, e.username, e.client_ip, e.detail, to_timestamp(e.occurred_at / 1000.0)
+            FROM unnest(?::text[], ?::text[], ?::text[], ?::text[], ?::bigint[])
+                AS e(event_type, username, client_ip, detail, occurred_at)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<AuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_EVENTS);
+            ps.setArray(1, textArray(connection, events, e -> e.type().name()));
+            ps.setArray(2, textArray(connection, events, AuditEvent::username));
+            ps.setArray(3, textArray(connection, events, AuditEvent::clientIp));
+            ps.setArray(4, textArray(connection, events, AuditEvent::detail));
+            ps.setArray(5, connection.createArrayOf("bigint",
+                    events.stream().map(e -> e.occurredAt().toEpochMilli()).toArray()));
+            return ps;
+        });
+    }
+
+    private static java.sql.Array textArray(Connection connection, List<AuditEvent> events,
+                                            Function<AuditEvent, String> field) throws SQLException {
+        return connection.createArrayOf("text", events.stream().map(field).toArray());
+    }
+}
@@ -0,0 +1,11 @@
+package vn.com.nws.cms.common.audit;
+
+public enum AuditEventType {
+    LOGIN,
+    LOGIN_FAILED,
+    REFRESH,
+    LOGOUT,
+    LOGOUT_ALL,
+    PASSWORD_RESET_REQUESTED,
+    PASSWORD_RESET
+}
@@ -0,0 +1,232 @@
+package vn.com.nws.cms.common.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import vn.com.nws.cms.common.util.MpscRingBuffer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous audit trail. {@link #record} only enqueues into a bounded lock-free ring buffer; a single
+ * background writer drains it and persists batches of up to {@code audit.batch-size} events in one
+ * statement, at least every {@code audit.flush-interval}. When the buffer is full the event is dropped
+ * ({@code audit.overflow-policy=drop}) or the caller waits up to {@code audit.overflow-max-wait} for space
+ * ({@code block}) before dropping it. On shutdown the writer stops after the web server and flushes what is left.
+ * A batch the database rejects for its data is written row by row, so one bad event cannot take the
+ * other events of its batch with it.
+ */
+@Component
+@Slf4j
+public class AuditLog implements SmartLifecycle {
+
+    /** Below the web server's phases, so the writer starts before and stops after request handling. */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final long BLOCK_PARK_NANOS = 50_000;
+    // Widths of the columns in V2__audit_events.sql; usernames of failed logins are whatever the client sent
+    private static final int USERNAME_LENGTH = 255;
+    private static final int CLIENT_IP_LENGTH = 45;
+    private static final int DETAIL_LENGTH = 255;
+
+    private final AuditEventRepository repository;
+    private final boolean enabled;
+    private final MpscRingBuffer<AuditEvent> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final boolean blockOnOverflow;
+    private final long overflowMaxWaitNanos;
+    private final Duration shutdownTimeout;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer writeTimer;
+
+    private volatile boolean running;
+    private volatile Thread writer;
+
+    public AuditLog(AuditEventRepository repository,
+                    MeterRegistry meterRegistry,
+                    @Value("${audit.enabled:true}") boolean enabled,
+                    @Value("${audit.buffer-capacity:65536}") int bufferCapacity,
+                    @Value("${audit.batch-size:500}") int batchSize,
+                    @Value("${audit.flush-interval:200ms}") Duration flushInterval,
+                    @Value("${audit.overflow-policy:drop}") String overflowPolicy,
+                    @Value("${audit.overflow-max-wait:20ms}") Duration overflowMaxWait,
+                    @Value("${audit.shutdown-timeout:10s}") Duration shutdownTimeout) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.blockOnOverflow = switch (overflowPolicy) {
+            case "drop" -> false;
+            case "block" -> true;
+            default -> throw new IllegalStateException("Unsupported audit.overflow-policy: " + overflowPolicy);
+        };
+        this.overflowMaxWaitNanos = overflowMaxWait.toNanos();
+        this.shutdownTimeout = shutdownTimeout;
+        this.written = Counter.builder("audit.events").tag("result", "written").register(meterRegistry);
+        this.dropped = Counter.builder("audit.events").tag("result", "dropped").register(meterRegistry);
+        this.failed = Counter.builder("audit.events").tag("result", "failed").register(meterRegistry);
+        this.writeTimer = Timer.builder("audit.write").register(meterRegistry);
+        Gauge.builder("audit.buffer.size", buffer, MpscRingBuffer::size).register(meterRegistry);
+    }
+
+    public void record(AuditEventType type, String username) {
+        record(type, username, null);
+    }
+
+    public void record(AuditEventType type, String username, String detail) {
+        if (!enabled) {
+            return;
+        }
+        AuditEvent event = new AuditEvent(type, truncate(username, USERNAME_LENGTH),
+                truncate(currentClientIp(), CLIENT_IP_LENGTH), truncate(detail, DETAIL_LENGTH), Instant.now());
+        if (!running || !enqueue(event)) {
+            dropped.increment();
+            return;
+        }
+        if (buffer.size() >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private boolean enqueue(AuditEvent event) {
+        if (buffer.offer(event)) {
+            return true;
+        }
+        if (!blockOnOverflow) {
+            return false;
+        }
+        LockSupport.unpark(writer);
+        long deadline = System.nanoTime() + overflowMaxWaitNanos;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            if (buffer.offer(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::drainLoop, "audit-writer");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = writer;
+        running = false;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            log.warn("Audit writer did not finish within {}; {} events were not persisted", shutdownTimeout, buffer.size());
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void drainLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (true) {
+            boolean stopping = !running;
+            buffer.drain(batch::add, batchSize);
+            if (!batch.isEmpty()) {
+                write(batch, stopping);
+                batch.clear();
+            }
+            if (stopping && buffer.size() == 0) {
+                return;
+            }
+            if (buffer.size() < batchSize && running) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+    }
+
+    private void write(List<AuditEvent> batch, boolean stopping) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                writeTimer.record(() -> repository.insertAll(batch));
+                written.increment(batch.size());
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // Retrying the same rows would fail the same way
+                log.warn("Audit batch of {} events was rejected; writing it row by row", batch.size(), e);
+                writeEach(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (stopping || attempt == MAX_WRITE_ATTEMPTS) {
+                    failed.increment(batch.size());
+                    log.error("Could not persist {} audit events", batch.size(), e);
+                    return;
+                }
+                log.warn("Could not persist {} audit events (attempt {}), retrying", batch.size(), attempt, e);
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+    }
+
+    private void writeEach(List<AuditEvent> batch) {
+        for (AuditEvent event : batch) {
+            try {
+                repository.insertAll(List.of(event));
+                written.increment();
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.error("Could not persist audit event {} of {}", event.type(), event.username(), e);
+            }
+        }
+    }
+
+    private static String truncate(String value, int length) {
+        if (value == null || value.length() <= length) {
+            return value;
+        }
+        // Never split a surrogate pair
+        return value.substring(0, Character.isHighSurrogate(value.charAt(length - 1)) ? length - 1 : length);
+    }
+
+    private static String currentClientIp() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest().getRemoteAddr()
+                : null;
+    }
+}
@@ -1,4 +1,78 @@
 package vn.com.nws.cms.common.config;
 
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import vn.com.nws.cms.common.datasource.ReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write splitting, active once {@code datasource.replicas.urls} lists at least one replica; otherwise
+ * Spring Boot's single auto-configured pool is used. The primary keeps the {@code spring.datasource.*}
+ * settings; replicas get their own Hikari pools ({@code datasource.replicas.hikari.*}), each reporting
+ * {@code hikaricp.*} metrics under its pool name.
+ */
+@Configuration
 public class JpaConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "datasource.replicas.urls")
+    public ReplicaRoutingDataSource routingDataSource(DataSourceProperties properties,
+                                                     Environment environment,
+                                                     MeterRegistry meterRegistry,
+                                                     @Value("${datasource.replicas.urls}") List<String> replicaUrls,
+                                                     @Value("${datasource.replicas.username:${spring.datasource.username}}") String replicaUsername,
+                                                     @Value("${datasource.replicas.password:${spring.datasource.password}}") String replicaPassword,
+                                                     @Value("${datasource.replicas.max-lag:}") Duration maxLag) {
+        Binder binder = Binder.get(environment);
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(metrics);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(replicaUsername)
+                    .password(replicaPassword)
+                    .build();
+            binder.bind("datasource.replicas.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(metrics);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, maxLag, meterRegistry);
+    }
+
+    /**
+     * Defers taking a physical connection until the first statement, by which point the transaction's
+     * read-only flag is set and the router can pick a replica.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "datasource.replicas.urls")
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
 }
@@ -3,6 +3,7 @@ package vn.com.nws.cms.common.config;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,9 +12,15 @@ import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import vn.com.nws.cms.common.security.CachingJwtDecoder;
+import vn.com.nws.cms.common.security.JwtTokenIssuer;
+import vn.com.nws.cms.common.security.TokenRevocationCheck;
 
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
 @Configuration
 public class JwtConfig {
@@ -32,7 +39,29 @@ public class JwtConfig {
     }
 
     @Bean
-    public JwtDecoder jwtDecoder() {
+    public JwtTokenIssuer jwtTokenIssuer() {
+        return new JwtTokenIssuer(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(MeterRegistry meterRegistry, TokenRevocationCheck revocationCheck,
+                                 @Value("${jwt.decoder-cache.enabled:true}") boolean cacheEnabled,
+                                 @Value("${jwt.decoder-cache.max-size:100000}") long cacheMaxSize,
+                                 @Value("${jwt.decoder-cache.max-ttl:30m}") Duration cacheMaxTtl) {
+        return new CachingJwtDecoder(nimbusJwtDecoder(), new JwtGrantedAuthoritiesConverter(), revocationCheck,
+                cacheEnabled, cacheMaxSize, cacheMaxTtl, meterRegistry);
+    }
+
+    @Bean
+    public JwtAuthenticationConverter jwtAuthenticationConverter(JwtDecoder jwtDecoder) {
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        if (jwtDecoder instanceof CachingJwtDecoder cachingJwtDecoder) {
+            converter.setJwtGrantedAuthoritiesConverter(cachingJwtDecoder::authoritiesOf);
+        }
+        return converter;
+    }
+
+    public NimbusJwtDecoder nimbusJwtDecoder() {
         SecretKeySpec secretKey =
                 new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
 
@@ -1,17 +1,45 @@
 package vn.com.nws.cms.common.config;
 
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import io.lettuce.core.metrics.MicrometerCommandLatencyRecorder;
+import io.lettuce.core.metrics.MicrometerOptions;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.RedisConfiguration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Lettuce connections for standalone, sentinel or cluster Redis ({@code redis.mode}).
+ * The client records per-command latency histograms through its {@link ClientResources}
+ * ({@code lettuce.command.completion}, {@code lettuce.command.firstresponse}).
+ */
 @Configuration
 public class RedisConfig {
 
+    @Value("${redis.mode:standalone}")
+    private String mode;
+
     @Value("${spring.data.redis.host:localhost}")
     private String redisHost;
 
@@ -21,13 +49,46 @@ public class RedisConfig {
     @Value("${spring.data.redis.password:}")
     private String redisPassword;
 
+    @Value("${spring.data.redis.sentinel.master:}")
+    private String sentinelMaster;
+
+    @Value("${spring.data.redis.sentinel.nodes:}")
+    private List<String> sentinelNodes;
+
+    @Value("${spring.data.redis.cluster.nodes:}")
+    private List<String> clusterNodes;
+
+    @Value("${spring.data.redis.cluster.max-redirects:3}")
+    private int clusterMaxRedirects;
+
+    @Value("${spring.data.redis.timeout:2s}")
+    private Duration commandTimeout;
+
+    @Value("${spring.data.redis.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${redis.topology-refresh-period:30s}")
+    private Duration topologyRefreshPeriod;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${monitoring.redis.command-latency.enabled:true}")
+    private boolean commandLatencyMetrics;
+
+    @Bean(destroyMethod = "shutdown")
+    public ClientResources lettuceClientResources(MeterRegistry meterRegistry) {
+        MicrometerOptions options = commandLatencyMetrics
+                ? MicrometerOptions.builder().histogram(true).build()
+                : MicrometerOptions.disabled();
+        return ClientResources.builder()
+                .commandLatencyRecorder(new MicrometerCommandLatencyRecorder(meterRegistry, options))
+                .build();
+    }
+
     @Bean
-    public RedisConnectionFactory redisConnectionFactory() {
-        RedisStandaloneConfiguration redisStandaloneConfiguration = new RedisStandaloneConfiguration(redisHost, redisPort);
-        if (redisPassword != null && !redisPassword.isBlank()) {
-            redisStandaloneConfiguration.setPassword(redisPassword);
-        }
-        return new LettuceConnectionFactory(redisStandaloneConfiguration);
+    public RedisConnectionFactory redisConnectionFactory(ClientResources clientResources) {
+        return new LettuceConnectionFactory(redisConfiguration(), clientConfiguration(clientResources));
     }
 
     @Bean
@@ -36,6 +97,87 @@ public class RedisConfig {
         template.setConnectionFactory(connectionFactory);
         template.setKeySerializer(new StringRedisSerializer());
         template.setValueSerializer(new StringRedisSerializer()); // Simple string storage
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(new StringRedisSerializer());
         return template;
     }
+
+    /**
+     * Absent with the local token store; the node-local caches then skip Redis entirely.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "auth.token-store.type", havingValue = "redis", matchIfMissing = true)
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("redis-listener-");
+            executor.setVirtualThreads(true);
+            container.setTaskExecutor(executor);
+        }
+        return container;
+    }
+
+    private RedisConfiguration redisConfiguration() {
+        switch (mode) {
+            case "sentinel" -> {
+                RedisSentinelConfiguration configuration =
+                        new RedisSentinelConfiguration(sentinelMaster, new HashSet<>(sentinelNodes));
+                if (hasPassword()) {
+                    configuration.setPassword(redisPassword);
+                }
+                return configuration;
+            }
+            case "cluster" -> {
+                RedisClusterConfiguration configuration = new RedisClusterConfiguration(clusterNodes);
+                configuration.setMaxRedirects(clusterMaxRedirects);
+                if (hasPassword()) {
+                    configuration.setPassword(redisPassword);
+                }
+                return configuration;
+            }
+            case "standalone" -> {
+                RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(redisHost, redisPort);
+                if (hasPassword()) {
+                    configuration.setPassword(redisPassword);
+                }
+                return configuration;
+            }
+            default -> throw new IllegalStateException("Unsupported redis.mode: " + mode);
+        }
+    }
+
+    private LettuceClientConfiguration clientConfiguration(ClientResources clientResources) {
+        SocketOptions socketOptions = SocketOptions.builder()
+                .connectTimeout(connectTimeout)
+                .keepAlive(true)
+                .build();
+        ClientOptions clientOptions;
+        if ("cluster".equals(mode)) {
+            clientOptions = ClusterClientOptions.builder()
+                    .socketOptions(socketOptions)
+                    .timeoutOptions(TimeoutOptions.enabled(commandTimeout))
+                    .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                    .topologyRefreshOptions(ClusterTopologyRefreshOptions.builder()
+                            .enablePeriodicRefresh(topologyRefreshPeriod)
+                            .enableAllAdaptiveRefreshTriggers()
+                            .build())
+                    .build();
+        } else {
+            clientOptions = ClientOptions.builder()
+                    .socketOptions(socketOptions)
+                    .timeoutOptions(TimeoutOptions.enabled(commandTimeout))
+                    .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                    .build();
+        }
+        return LettuceClientConfiguration.builder()
+                .commandTimeout(commandTimeout)
+                .clientResources(clientResources)
+                .clientOptions(clientOptions)
+                .build();
+    }
+
+    private boolean hasPassword() {
+        return redisPassword != null && !redisPassword.isBlank();
+    }
 }
@@ -0,0 +1,160 @@
+package vn.com.nws.cms.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to a healthy read replica (round robin) and everything else to the primary.
+ * The read-only flag is only known once the transaction has started, so this must sit behind a
+ * {@code LazyConnectionDataSourceProxy} (see {@code JpaConfig}). Replicas are probed on a schedule; one that
+ * is unreachable, or lags further behind than {@code maxLag} when set, is skipped until it recovers, and
+ * reads fall back to the primary when no replica qualifies.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final String PRIMARY = "primary";
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+            END
+            """;
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+    private final Replica[] replicas;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter routedToPrimary;
+    private final Counter routedToReplica;
+    private final Counter fallbacks;
+
+    /**
+     * @param maxLag replicas further behind are skipped; {@code null} routes regardless of lag
+     */
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, Duration maxLag,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toArray(Replica[]::new);
+        this.maxLag = maxLag;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : this.replicas) {
+            targets.put(replica.name, replica.dataSource);
+            Gauge.builder("datasource.replica.up", replica, r -> r.up ? 1 : 0).tag("replica", replica.name).register(meterRegistry);
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagMillis / 1000.0)
+                    .tag("replica", replica.name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        this.routedToPrimary = Counter.builder("datasource.routing").tag("target", "primary").register(meterRegistry);
+        this.routedToReplica = Counter.builder("datasource.routing").tag("target", "replica").register(meterRegistry);
+        this.fallbacks = Counter.builder("datasource.routing").tag("target", "fallback").register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code action} with every connection taken from the primary, including read-only ones, for
+     * reads that must see a write that may not have reached the replicas yet.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                FORCE_PRIMARY.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (FORCE_PRIMARY.get() != null || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            routedToPrimary.increment();
+            return PRIMARY;
+        }
+        if (replicas.length == 0) {
+            fallbacks.increment();
+            return PRIMARY;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.length);
+        for (int i = 0; i < replicas.length; i++) {
+            Replica replica = replicas[(start + i) % replicas.length];
+            if (replica.eligible(maxLag)) {
+                routedToReplica.increment();
+                return replica.name;
+            }
+        }
+        fallbacks.increment();
+        return PRIMARY;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.health-check-interval:5s}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                rs.next();
+                replica.lagMillis = rs.getLong(1);
+                if (!replica.up) {
+                    log.info("Read replica {} is available (lag {} ms)", replica.name, replica.lagMillis);
+                }
+                replica.up = true;
+            } catch (SQLException e) {
+                if (replica.up) {
+                    log.warn("Read replica {} is unavailable, routing its reads elsewhere: {}", replica.name, e.getMessage());
+                }
+                replica.up = false;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (Replica replica : replicas) {
+            replica.dataSource.close();
+        }
+        primary.close();
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final HikariDataSource dataSource;
+        private volatile boolean up; // false until the first health check passes
+        private volatile long lagMillis;
+
+        Replica(HikariDataSource dataSource) {
+            this.name = dataSource.getPoolName();
+            this.dataSource = dataSource;
+        }
+
+        boolean eligible(Duration maxLag) {
+            return up && (maxLag == null || lagMillis <= maxLag.toMillis());
+        }
+    }
+}
@@ -1,4 +1,25 @@
 package vn.com.nws.cms.common.dto;
 
-public class PageResponse {
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list. Pass {@code nextCursor} back to get the following page;
+ * it is opaque and signed, so clients cannot forge or edit it. {@code total} is only filled when
+ * the caller asked for it, because counting costs a full scan of the matching rows.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageResponse<T> {
+    private List<T> items;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    private Long total;
 }
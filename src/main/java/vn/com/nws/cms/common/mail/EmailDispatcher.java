@@ -0,0 +1,152 @@
+package vn.com.nws.cms.common.mail;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains {@code email_outbox}: every poll claims one batch of due rows, sends it through
+ * {@link SmtpBatchSender} and records the outcome. Sending runs on the dispatcher's own thread, so the
+ * shared scheduler never waits on SMTP; a poll that finds the previous batch still sending is skipped.
+ * Failed sends are retried with exponential backoff (plus jitter) until {@code email.outbox.max-attempts},
+ * after which the row is marked FAILED. Safe to run on every node.
+ */
+@Component
+@Slf4j
+public class EmailDispatcher implements DisposableBean {
+
+    private static final double JITTER = 0.2;
+    private static final long SHUTDOWN_GRACE_SECONDS = 10;
+
+    private final EmailOutboxRepository repository;
+    private final SmtpBatchSender sender;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("email-dispatch-"));
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+    private final AtomicLong pending = new AtomicLong();
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+    private final Timer batchTimer;
+
+    public EmailDispatcher(EmailOutboxRepository repository,
+                           ObjectProvider<JavaMailSender> mailSender,
+                           MeterRegistry meterRegistry,
+                           @Value("${email.outbox.enabled:true}") boolean enabled,
+                           @Value("${email.from:no-reply@cms.local}") String from,
+                           @Value("${email.outbox.connections:4}") int connections,
+                           @Value("${email.outbox.batch-size:100}") int batchSize,
+                           @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+                           @Value("${email.outbox.initial-backoff:30s}") Duration initialBackoff,
+                           @Value("${email.outbox.max-backoff:1h}") Duration maxBackoff,
+                           @Value("${email.outbox.lease:5m}") Duration lease) {
+        this.repository = repository;
+        JavaMailSender javaMailSender = mailSender.getIfAvailable();
+        this.sender = javaMailSender != null ? new SmtpBatchSender(javaMailSender, from, connections) : null;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.sent = Counter.builder("email.outbox.dispatched").tag("result", "sent").register(meterRegistry);
+        this.retried = Counter.builder("email.outbox.dispatched").tag("result", "retry").register(meterRegistry);
+        this.failed = Counter.builder("email.outbox.dispatched").tag("result", "failed").register(meterRegistry);
+        this.batchTimer = Timer.builder("email.outbox.batch").register(meterRegistry);
+        Gauge.builder("email.outbox.pending", pending, AtomicLong::get).register(meterRegistry);
+        if (enabled && sender == null) {
+            log.warn("No mail sender configured (spring.mail.host); outgoing email stays queued in email_outbox");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval:1s}")
+    public void dispatch() {
+        if (!dispatching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::dispatchBatch);
+        } catch (RejectedExecutionException e) {
+            dispatching.set(false); // shutting down
+        }
+    }
+
+    private void dispatchBatch() {
+        try {
+            if (enabled && sender != null) {
+                List<OutboxEmail> batch = repository.claim(batchSize, lease);
+                if (!batch.isEmpty()) {
+                    batchTimer.record(() -> deliver(batch));
+                }
+            }
+            pending.set(repository.countPending());
+        } catch (RuntimeException e) {
+            log.warn("Email outbox dispatch failed; claimed rows are retried once their lease expires", e);
+        } finally {
+            dispatching.set(false);
+        }
+    }
+
+    private void deliver(List<OutboxEmail> batch) {
+        Map<Long, String> failures = sender.send(batch);
+        List<Long> delivered = new ArrayList<>(batch.size());
+        for (OutboxEmail email : batch) {
+            String error = failures.get(email.id());
+            if (error == null) {
+                delivered.add(email.id());
+            } else if (email.attempts() >= maxAttempts) {
+                repository.markFailed(email.id(), error);
+                failed.increment();
+                log.error("Giving up on email {} to {} after {} attempts: {}", email.id(), email.recipient(), email.attempts(), error);
+            } else {
+                repository.reschedule(email.id(), backoff(email.attempts()), error);
+                retried.increment();
+            }
+        }
+        repository.markSent(delivered);
+        sent.increment(delivered.size());
+    }
+
+    private Duration backoff(int attempts) {
+        long base = initialBackoff.toMillis() << Math.min(attempts - 1, 20);
+        long capped = Math.min(base, maxBackoff.toMillis());
+        double jitter = 1 + ThreadLocalRandom.current().nextDouble(-JITTER, JITTER);
+        return Duration.ofMillis((long) (capped * jitter));
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        // Rows of a batch cut short are sent again once their lease expires
+        executor.shutdown();
+        executor.awaitTermination(SHUTDOWN_GRACE_SECONDS, TimeUnit.SECONDS);
+        if (sender != null) {
+            sender.close();
+        }
+    }
+}
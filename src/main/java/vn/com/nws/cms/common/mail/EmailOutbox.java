@@ -0,0 +1,22 @@
+package vn.com.nws.cms.common.mail;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Entry point for sending email. The message is only written to {@code email_outbox}, within the caller's
+ * transaction when there is one so it commits or rolls back with the business change, and
+ * {@link EmailDispatcher} delivers it in the background; a slow or unreachable SMTP server never holds up a request.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmailOutbox {
+
+    private final EmailOutboxRepository repository;
+
+    @Transactional
+    public void enqueue(String recipient, String subject, String body) {
+        repository.insert(recipient, subject, body);
+    }
+}
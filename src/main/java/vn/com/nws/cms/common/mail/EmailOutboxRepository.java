@@ -0,0 +1,84 @@
+package vn.com.nws.cms.common.mail;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC access to {@code email_outbox}. Claiming uses {@code FOR UPDATE SKIP LOCKED}, so any number of
+ * nodes can drain the table concurrently without handing the same row to two of them.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EmailOutboxRepository {
+
+    private static final String INSERT = "INSERT INTO email_outbox (recipient, subject, body) VALUES (?, ?, ?)";
+    private static final String CLAIM = """
+            UPDATE email_outbox
+            SET attempts = attempts + 1, next_attempt_at = now() + ? * interval '1 millisecond'
+            WHERE id IN (
+                SELECT id FROM email_outbox
+                WHERE status = 'PENDING' AND next_attempt_at <= now()
+                ORDER BY next_attempt_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING id, recipient, subject, body, attempts
+            """;
+    // The body holds the reset link, so it is not kept once delivered
+    private static final String MARK_SENT =
+            "UPDATE email_outbox SET status = 'SENT', sent_at = now(), body = NULL, last_error = NULL WHERE id = ANY(?)";
+    private static final String RESCHEDULE =
+            "UPDATE email_outbox SET next_attempt_at = now() + ? * interval '1 millisecond', last_error = ? WHERE id = ?";
+    private static final String MARK_FAILED =
+            "UPDATE email_outbox SET status = 'FAILED', body = NULL, last_error = ? WHERE id = ?";
+    private static final String COUNT_PENDING = "SELECT count(*) FROM email_outbox WHERE status = 'PENDING'";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(String recipient, String subject, String body) {
+        jdbcTemplate.update(INSERT, recipient, subject, body);
+    }
+
+    /**
+     * Takes up to {@code limit} due rows and hides them from other claimers for {@code lease}.
+     */
+    public List<OutboxEmail> claim(int limit, Duration lease) {
+        return jdbcTemplate.query(CLAIM, (rs, rowNum) -> new OutboxEmail(rs.getLong(1), rs.getString(2),
+                rs.getString(3), rs.getString(4), rs.getInt(5)), lease.toMillis(), limit);
+    }
+
+    public void markSent(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(MARK_SENT);
+            ps.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        });
+    }
+
+    public void reschedule(long id, Duration delay, String error) {
+        jdbcTemplate.update(RESCHEDULE, delay.toMillis(), truncate(error), id);
+    }
+
+    public void markFailed(long id, String error) {
+        jdbcTemplate.update(MARK_FAILED, truncate(error), id);
+    }
+
+    public long countPending() {
+        Long count = jdbcTemplate.queryForObject(COUNT_PENDING, Long.class);
+        return count != null ? count : 0;
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
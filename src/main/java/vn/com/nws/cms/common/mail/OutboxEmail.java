@@ -0,0 +1,4 @@
+package vn.com.nws.cms.common.mail;
+
+public record OutboxEmail(long id, String recipient, String subject, String body, int attempts) {
+}
@@ -0,0 +1,106 @@
+package vn.com.nws.cms.common.mail;
+
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends a batch of emails over at most {@code connections} concurrent SMTP connections. Each connection
+ * delivers its share of the batch in one session ({@link JavaMailSender#send(SimpleMailMessage...)} keeps
+ * the transport open across messages), so the handshake and authentication are paid once per chunk rather
+ * than once per email. Failures are reported per message.
+ */
+public class SmtpBatchSender implements AutoCloseable {
+
+    private final JavaMailSender mailSender;
+    private final String from;
+    private final int connections;
+    private final ExecutorService executor;
+
+    public SmtpBatchSender(JavaMailSender mailSender, String from, int connections) {
+        this.mailSender = mailSender;
+        this.from = from;
+        this.connections = connections;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(connections, runnable -> {
+            Thread thread = new Thread(runnable, "smtp-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return the error for every email that was not accepted by the server, keyed by outbox id
+     */
+    public Map<Long, String> send(List<OutboxEmail> emails) {
+        Map<Long, String> failures = new ConcurrentHashMap<>();
+        int chunkSize = Math.max(1, (emails.size() + connections - 1) / connections);
+        List<Future<?>> chunks = new ArrayList<>();
+        for (int start = 0; start < emails.size(); start += chunkSize) {
+            List<OutboxEmail> chunk = emails.subList(start, Math.min(emails.size(), start + chunkSize));
+            chunks.add(executor.submit(() -> sendChunk(chunk, failures)));
+        }
+        for (Future<?> chunk : chunks) {
+            try {
+                chunk.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while sending email", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Email chunk failed unexpectedly", e.getCause());
+            }
+        }
+        return failures;
+    }
+
+    private void sendChunk(List<OutboxEmail> chunk, Map<Long, String> failures) {
+        Map<SimpleMailMessage, Long> ids = new IdentityHashMap<>();
+        SimpleMailMessage[] messages = new SimpleMailMessage[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            OutboxEmail email = chunk.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(from);
+            message.setTo(email.recipient());
+            message.setSubject(email.subject());
+            message.setText(email.body());
+            messages[i] = message;
+            ids.put(message, email.id());
+        }
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                chunk.forEach(email -> failures.put(email.id(), describe(e)));
+            }
+            e.getFailedMessages().forEach((message, cause) -> {
+                Long id = ids.get(message);
+                if (id != null) {
+                    failures.put(id, describe(cause));
+                }
+            });
+        } catch (MailException e) {
+            chunk.forEach(email -> failures.put(email.id(), describe(e)));
+        }
+    }
+
+    private static String describe(Exception e) {
+        return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,50 @@
+package vn.com.nws.cms.common.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Timers for the individual stages of a request ({@code operation} and {@code stage} tags), published as
+ * percentile histograms with buckets at the configured service-level objectives so that a slow p95 on an
+ * endpoint can be traced to the stage responsible. Failed stages are timed as well.
+ */
+@Component
+public class StageTimers {
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry meterRegistry;
+    private final Duration[] serviceLevelObjectives;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public StageTimers(MeterRegistry meterRegistry,
+                       @Value("${monitoring.stages.slo:5ms,25ms,50ms,100ms,250ms,500ms}") Duration[] serviceLevelObjectives) {
+        this.meterRegistry = meterRegistry;
+        this.serviceLevelObjectives = serviceLevelObjectives;
+    }
+
+    public <T> T time(String name, String operation, String stage, Supplier<T> action) {
+        return timer(name, operation, stage).record(action);
+    }
+
+    public void time(String name, String operation, String stage, Runnable action) {
+        timer(name, operation, stage).record(action);
+    }
+
+    public Timer timer(String name, String operation, String stage) {
+        return timers.computeIfAbsent(name + '|' + operation + '|' + stage, key -> Timer.builder(name)
+                .tag("operation", operation)
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .publishPercentiles(PERCENTILES)
+                .serviceLevelObjectives(serviceLevelObjectives)
+                .register(meterRegistry));
+    }
+}
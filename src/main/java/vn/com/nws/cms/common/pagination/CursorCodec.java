@@ -0,0 +1,147 @@
+package vn.com.nws.cms.common.pagination;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import vn.com.nws.cms.common.exception.BusinessException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Serializes keyset positions into opaque cursors: the typed key values followed by a truncated
+ * HMAC-SHA256 over the values and a caller-chosen scope (e.g. the endpoint and sort), so a cursor
+ * cannot be tampered with or replayed against a different listing.
+ */
+@Component
+public class CursorCodec {
+
+    private static final int MAC_LENGTH = 16;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Mac prototype;
+
+    public CursorCodec(@Value("${pagination.cursor-secret:${jwt.secret}}") String secret) {
+        try {
+            prototype = Mac.getInstance("HmacSHA256");
+            prototype.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available for the cursor secret", e);
+        }
+    }
+
+    public String encode(String scope, Map<String, ?> keys) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(keys.size());
+            for (Map.Entry<String, ?> key : keys.entrySet()) {
+                out.writeUTF(key.getKey());
+                writeValue(out, key.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] payload = bytes.toByteArray();
+        byte[] cursor = Arrays.copyOf(payload, payload.length + MAC_LENGTH);
+        System.arraycopy(sign(scope, payload), 0, cursor, payload.length, MAC_LENGTH);
+        return ENCODER.encodeToString(cursor);
+    }
+
+    /**
+     * @throws BusinessException if the cursor is malformed, was not issued by this service or belongs to another scope
+     */
+    public Map<String, Object> decode(String scope, String cursor) {
+        byte[] raw;
+        try {
+            raw = DECODER.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+        if (raw.length <= MAC_LENGTH) {
+            throw invalid();
+        }
+        byte[] payload = Arrays.copyOf(raw, raw.length - MAC_LENGTH);
+        byte[] mac = Arrays.copyOfRange(raw, payload.length, raw.length);
+        if (!MessageDigest.isEqual(mac, Arrays.copyOf(sign(scope, payload), MAC_LENGTH))) {
+            throw invalid();
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int count = in.readUnsignedByte();
+            Map<String, Object> keys = new LinkedHashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                keys.put(in.readUTF(), readValue(in));
+            }
+            return keys;
+        } catch (IOException | RuntimeException e) {
+            throw invalid();
+        }
+    }
+
+    private byte[] sign(String scope, byte[] payload) {
+        Mac mac;
+        try {
+            mac = (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        mac.update(scope.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return mac.doFinal(payload);
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        switch (value) {
+            case String s -> {
+                out.writeByte('s');
+                out.writeUTF(s);
+            }
+            case Long l -> {
+                out.writeByte('l');
+                out.writeLong(l);
+            }
+            case Integer i -> {
+                out.writeByte('i');
+                out.writeInt(i);
+            }
+            case LocalDateTime t -> {
+                out.writeByte('t');
+                out.writeUTF(t.toString());
+            }
+            case Instant t -> {
+                out.writeByte('T');
+                out.writeUTF(t.toString());
+            }
+            default -> throw new IllegalArgumentException("Unsupported cursor key type: " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        return switch (in.readUnsignedByte()) {
+            case 's' -> in.readUTF();
+            case 'l' -> in.readLong();
+            case 'i' -> in.readInt();
+            case 't' -> LocalDateTime.parse(in.readUTF());
+            case 'T' -> Instant.parse(in.readUTF());
+            default -> throw new IllegalArgumentException("Unknown cursor key type");
+        };
+    }
+
+    private static BusinessException invalid() {
+        return new BusinessException("Invalid page cursor");
+    }
+}
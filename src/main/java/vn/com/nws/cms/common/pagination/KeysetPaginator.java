@@ -0,0 +1,62 @@
+package vn.com.nws.cms.common.pagination;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Component;
+import vn.com.nws.cms.common.dto.PageResponse;
+import vn.com.nws.cms.common.exception.BusinessException;
+
+import java.util.function.Function;
+
+/**
+ * Keyset ("seek") pagination for any repository that extends {@link JpaSpecificationExecutor}.
+ * Each page is a {@code WHERE (sort keys) > (last row) ORDER BY ... LIMIT n} query, so its cost does
+ * not grow with the page depth as {@code OFFSET} does. Spring Data appends the id to the sort to make
+ * the order unique; sort on indexed columns only.
+ */
+@Component
+@RequiredArgsConstructor
+public class KeysetPaginator {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private final CursorCodec cursorCodec;
+
+    /**
+     * @param scope      identifies the listing and its sort; cursors from another scope are rejected
+     * @param cursor     {@code nextCursor} of the previous page, or {@code null} for the first page
+     * @param withTotal  whether to also run a {@code COUNT(*)} over the matching rows
+     */
+    public <T, R> PageResponse<R> page(JpaSpecificationExecutor<T> repository, Specification<T> specification,
+                                       Sort sort, String scope, String cursor, Integer size, boolean withTotal,
+                                       Function<? super T, R> mapper) {
+        int limit = size == null ? DEFAULT_SIZE : size;
+        if (limit < 1 || limit > MAX_SIZE) {
+            throw new BusinessException("Page size must be between 1 and " + MAX_SIZE);
+        }
+        ScrollPosition position = cursor == null || cursor.isBlank()
+                ? ScrollPosition.keyset()
+                : ScrollPosition.forward(cursorCodec.decode(scope, cursor));
+
+        Window<T> window = repository.findBy(specification, query -> query.sortBy(sort).limit(limit).scroll(position));
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            nextCursor = cursorCodec.encode(scope, last.getKeys());
+        }
+        return PageResponse.<R>builder()
+                .items(window.map(mapper).getContent())
+                .size(window.size())
+                .hasNext(window.hasNext())
+                .nextCursor(nextCursor)
+                .total(withTotal ? repository.count(specification) : null)
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package vn.com.nws.cms.common.ratelimit;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+
+/**
+ * A token-bucket limit: bursts of up to {@code capacity} requests, refilled at {@code capacity} per {@code period}.
+ * Written as {@code capacity/period}, e.g. {@code 10/1m}.
+ */
+public record RateLimit(long capacity, Duration period) {
+
+    public RateLimit {
+        if (capacity <= 0 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Rate limit needs a positive capacity and period");
+        }
+    }
+
+    public static RateLimit parse(String value) {
+        int separator = value.indexOf('/');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Rate limit must look like capacity/period (e.g. 10/1m): " + value);
+        }
+        return new RateLimit(Long.parseLong(value.substring(0, separator).trim()),
+                DurationStyle.detectAndParse(value.substring(separator + 1).trim()));
+    }
+
+    double refillPerNano() {
+        return (double) capacity / period.toNanos();
+    }
+
+    @Override
+    public String toString() {
+        return capacity + "/" + DurationStyle.SIMPLE.print(period);
+    }
+}
@@ -0,0 +1,152 @@
+package vn.com.nws.cms.common.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token-bucket rate limiter with a node-local fast path. Every check is answered from the local bucket;
+ * on a fixed interval the tokens each node took are pushed to Redis in one pipelined batch and every
+ * bucket adopts the global balance. Between syncs a cluster of N nodes can admit up to N times what one
+ * node would, so keep the sync interval short relative to the limit periods. With the local token store
+ * (no listener container) the limiter is node-local only.
+ */
+@Component
+@Slf4j
+public class RateLimiter {
+
+    private static final String KEY_PREFIX = "auth:ratelimit:";
+    private static final RedisScript<String> SYNC_BUCKET =
+            RedisScript.of(new ClassPathResource("scripts/rate-limit.lua"), String.class);
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final boolean shared;
+    private final Cache<String, TokenBucket> buckets;
+    private final Timer syncTimer;
+    private final byte[] script = SYNC_BUCKET.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+    private final byte[] scriptSha = SYNC_BUCKET.getSha1().getBytes(StandardCharsets.UTF_8);
+
+    public RateLimiter(RedisTemplate<String, Object> redisTemplate,
+                       ObjectProvider<RedisMessageListenerContainer> listenerContainer,
+                       MeterRegistry meterRegistry,
+                       @Value("${auth.rate-limit.max-buckets:100000}") long maxBuckets,
+                       @Value("${auth.rate-limit.idle-expiry:30m}") Duration idleExpiry) {
+        this.redisTemplate = redisTemplate;
+        this.shared = listenerContainer.getIfAvailable() != null;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleExpiry)
+                .build();
+        this.syncTimer = Timer.builder("auth.rate-limit.sync").register(meterRegistry);
+        Gauge.builder("auth.rate-limit.buckets", buckets, Cache::estimatedSize).register(meterRegistry);
+    }
+
+    /**
+     * Takes one token from {@code bucket}.
+     *
+     * @return {@link Duration#ZERO} when the request is admitted, otherwise how long until it would be
+     */
+    public Duration tryAcquire(String bucket, RateLimit limit) {
+        long now = System.nanoTime();
+        long waitNanos = buckets.get(bucket, key -> new TokenBucket(limit, now)).tryConsume(now);
+        return waitNanos == 0 ? Duration.ZERO : Duration.ofNanos(waitNanos);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.rate-limit.sync-interval:500ms}")
+    public void sync() {
+        if (!shared) {
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        List<TokenBucket> synced = new ArrayList<>();
+        List<Long> consumed = new ArrayList<>();
+        for (Map.Entry<String, TokenBucket> entry : buckets.asMap().entrySet()) {
+            long drained = entry.getValue().drainPending();
+            if (drained >= 0) {
+                keys.add(KEY_PREFIX + entry.getKey());
+                synced.add(entry.getValue());
+                consumed.add(drained);
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            List<Object> balances = syncTimer.record(() -> push(keys, synced, consumed));
+            long now = System.nanoTime();
+            for (int i = 0; i < synced.size(); i++) {
+                synced.get(i).applyGlobal(Double.parseDouble((String) balances.get(i)), now);
+            }
+        } catch (RuntimeException e) {
+            for (int i = 0; i < synced.size(); i++) {
+                synced.get(i).restorePending(consumed.get(i));
+            }
+            log.warn("Could not sync {} rate limit buckets with Redis; limiting per node until it recovers", keys.size(), e);
+        }
+    }
+
+    private List<Object> push(List<String> keys, List<TokenBucket> synced, List<Long> consumed) {
+        try {
+            return pipeline(keys, synced, consumed, true);
+        } catch (RuntimeException e) {
+            if (!isNoScript(e)) {
+                throw e;
+            }
+            // EVAL caches the script on the server, so the next sync goes back to EVALSHA
+            return pipeline(keys, synced, consumed, false);
+        }
+    }
+
+    private List<Object> pipeline(List<String> keys, List<TokenBucket> synced, List<Long> consumed, boolean bySha) {
+        return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < keys.size(); i++) {
+                RateLimit limit = synced.get(i).limit();
+                byte[][] keyAndArgs = {
+                        bytes(keys.get(i)),
+                        bytes(String.valueOf(limit.capacity())),
+                        bytes(String.valueOf(limit.refillPerNano() * NANOS_PER_MILLI)),
+                        bytes(String.valueOf(consumed.get(i)))
+                };
+                if (bySha) {
+                    connection.scriptingCommands().evalSha(scriptSha, ReturnType.VALUE, 1, keyAndArgs);
+                } else {
+                    connection.scriptingCommands().eval(script, ReturnType.VALUE, 1, keyAndArgs);
+                }
+            }
+            return null;
+        });
+    }
+
+    private static boolean isNoScript(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
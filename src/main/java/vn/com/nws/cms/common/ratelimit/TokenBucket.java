@@ -0,0 +1,80 @@
+package vn.com.nws.cms.common.ratelimit;
+
+/**
+ * Node-local view of a shared token bucket. Requests are admitted against the local balance; tokens taken
+ * since the last sync are kept as {@code pending} until {@link RateLimiter} pushes them to Redis and
+ * replaces the balance with the global one. Critical sections are arithmetic only, so the monitor is never
+ * held across I/O.
+ */
+final class TokenBucket {
+
+    private final RateLimit limit;
+    private final double refillPerNano;
+    private double tokens;
+    private long refilledAt;
+    private long pending;
+    private boolean touched;
+
+    TokenBucket(RateLimit limit, long now) {
+        this.limit = limit;
+        this.refillPerNano = limit.refillPerNano();
+        this.tokens = limit.capacity();
+        this.refilledAt = now;
+    }
+
+    RateLimit limit() {
+        return limit;
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return 0 when admitted, otherwise the nanoseconds until the next token
+     */
+    synchronized long tryConsume(long now) {
+        refill(now);
+        touched = true;
+        if (tokens >= 1) {
+            tokens -= 1;
+            pending++;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / refillPerNano);
+    }
+
+    /**
+     * Hands over the tokens taken since the last sync, or -1 if the bucket was not used since then.
+     */
+    synchronized long drainPending() {
+        if (!touched) {
+            return -1;
+        }
+        touched = false;
+        long drained = pending;
+        pending = 0;
+        return drained;
+    }
+
+    /**
+     * Adopts the global balance reported after a sync, minus whatever this node took while the sync was in flight.
+     */
+    synchronized void applyGlobal(double remaining, long now) {
+        tokens = Math.min(limit.capacity(), remaining) - pending;
+        refilledAt = now;
+    }
+
+    /**
+     * Puts drained tokens back after a failed sync so they are pushed with the next one.
+     */
+    synchronized void restorePending(long drained) {
+        pending += drained;
+        touched = true;
+    }
+
+    private void refill(long now) {
+        if (now > refilledAt) {
+            tokens = Math.min(limit.capacity(), tokens + (now - refilledAt) * refillPerNano);
+            refilledAt = now;
+        }
+    }
+}
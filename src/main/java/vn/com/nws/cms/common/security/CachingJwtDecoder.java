@@ -0,0 +1,108 @@
+package vn.com.nws.cms.common.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Keeps verified tokens, together with their converted authorities, keyed by the SHA-256 of the token.
+ * An entry never outlives the token's {@code exp}; tokens without an expiry are not cached.
+ * The revocation check runs on every decode, including cache hits.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Converter<Jwt, Collection<GrantedAuthority>> authoritiesConverter;
+    private final TokenRevocationCheck revocationCheck;
+    private final Cache<String, VerifiedJwt> cache; // null when caching is switched off
+
+    public CachingJwtDecoder(JwtDecoder delegate, Converter<Jwt, Collection<GrantedAuthority>> authoritiesConverter,
+                             TokenRevocationCheck revocationCheck, boolean cacheEnabled, long maxSize, Duration maxTtl,
+                             MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.authoritiesConverter = authoritiesConverter;
+        this.revocationCheck = revocationCheck;
+        if (cacheEnabled) {
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfter(new TokenExpiry(maxTtl))
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.decoder.cache");
+        } else {
+            this.cache = null;
+        }
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = TokenDigests.sha256(token);
+        VerifiedJwt jwt = cache != null ? cache.getIfPresent(key) : null;
+        if (jwt == null) {
+            jwt = new VerifiedJwt(delegate.decode(token), authoritiesConverter);
+            if (cache != null && jwt.getExpiresAt() != null) {
+                cache.put(key, jwt);
+            }
+        }
+        if (revocationCheck.isRevoked(key, jwt)) {
+            throw new BadJwtException("Token has been revoked");
+        }
+        return jwt;
+    }
+
+    /**
+     * Authorities for a token. Tokens returned by {@link #decode} carry the authorities converted when they
+     * were first verified, so the authentication provider does not convert them again on a cache hit.
+     */
+    public Collection<GrantedAuthority> authoritiesOf(Jwt jwt) {
+        if (jwt instanceof VerifiedJwt verified) {
+            return verified.authorities;
+        }
+        return authoritiesConverter.convert(jwt);
+    }
+
+    /** A verified token together with its converted authorities. */
+    private static final class VerifiedJwt extends Jwt {
+
+        private final Collection<GrantedAuthority> authorities;
+
+        VerifiedJwt(Jwt jwt, Converter<Jwt, Collection<GrantedAuthority>> authoritiesConverter) {
+            super(jwt.getTokenValue(), jwt.getIssuedAt(), jwt.getExpiresAt(), jwt.getHeaders(), jwt.getClaims());
+            this.authorities = authoritiesConverter.convert(jwt);
+        }
+    }
+
+    private record TokenExpiry(Duration maxTtl) implements Expiry<String, VerifiedJwt> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedJwt value, long currentTime) {
+            Duration remaining = Duration.between(Instant.now(), value.getExpiresAt());
+            if (remaining.isNegative()) {
+                return 0;
+            }
+            return remaining.compareTo(maxTtl) < 0 ? remaining.toNanos() : maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedJwt value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedJwt value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -21,28 +22,39 @@ import java.util.stream.Collectors;
 public class JwtProvider {
 
     private final JwtEncoder jwtEncoder;
+    private final JwtTokenIssuer jwtTokenIssuer;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration; // in milliseconds
 
+    @Value("${jwt.fast-issuer.enabled:true}")
+    private boolean fastIssuerEnabled;
+
     public String generateToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        return generateToken(userPrincipal.getUsername(), userPrincipal);
+        String scope = fastIssuerEnabled
+                ? jwtTokenIssuer.scopeOf(userPrincipal.getAuthorities())
+                : buildScope(userPrincipal.getAuthorities());
+        return generateToken(userPrincipal.getUsername(), scope);
     }
     
     public String generateToken(String username) {
-        return generateToken(username, null);
+        return generateToken(username, "");
+    }
+
+    /**
+     * Issues a token for a known role without loading {@code UserDetails}, e.g. on refresh.
+     */
+    public String generateTokenWithRole(String username, String role) {
+        return generateToken(username, role);
     }
     
-    private String generateToken(String username, UserDetails userDetails) {
+    private String generateToken(String username, String scope) {
         Instant now = Instant.now();
         Instant validity = now.plusMillis(jwtExpiration);
 
-        String scope = "";
-        if (userDetails != null) {
-            scope = userDetails.getAuthorities().stream()
-                    .map(GrantedAuthority::getAuthority)
-                    .collect(Collectors.joining(" "));
+        if (fastIssuerEnabled) {
+            return jwtTokenIssuer.issue(username, scope, now, validity);
         }
 
         JwtClaimsSet claims = JwtClaimsSet.builder()
@@ -55,6 +67,12 @@ public class JwtProvider {
         return jwtEncoder.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims)).getTokenValue();
     }
     
+    public static String buildScope(Collection<? extends GrantedAuthority> authorities) {
+        return authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(" "));
+    }
+
     public String generateRefreshToken(String username) {
         return UUID.randomUUID().toString();
     }
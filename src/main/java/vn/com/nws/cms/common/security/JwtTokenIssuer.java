@@ -0,0 +1,238 @@
+package vn.com.nws.cms.common.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import vn.com.nws.cms.common.util.ObjectPool;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * HS256 access-token issuer for the login/refresh hot path. Produces the same compact JWS as
+ * {@code NimbusJwtEncoder} with a {@code {"alg":"HS256"}} header, but keeps the encoded header
+ * precomputed, reuses pooled {@link Mac}s and scratch buffers, and writes the claims JSON
+ * straight into bytes instead of going through JWK selection and a claims object model.
+ */
+public class JwtTokenIssuer {
+
+    private static final byte[] BASE64_URL =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ENCODED_HEADER = encodeHeader();
+    private static final int SIGNATURE_LENGTH = 32;
+    private static final int MAX_CACHED_SCOPES = 256;
+
+    private final SecretKeySpec key;
+    private final ObjectPool<Buffers> buffers = new ObjectPool<>(() -> new Buffers(newMac()));
+    private final ConcurrentMap<Set<GrantedAuthority>, String> scopes = new ConcurrentHashMap<>();
+
+    public JwtTokenIssuer(byte[] secret) {
+        this.key = new SecretKeySpec(secret, "HmacSHA256");
+        buffers.release(new Buffers(newMac())); // fail fast on an unusable key
+    }
+
+    public String issue(String subject, String scope, Instant issuedAt, Instant expiresAt) {
+        Buffers buf = buffers.borrow();
+        try {
+            return issue(buf, subject, scope, issuedAt, expiresAt);
+        } finally {
+            buffers.release(buf);
+        }
+    }
+
+    private String issue(Buffers buf, String subject, String scope, Instant issuedAt, Instant expiresAt) {
+        int claimsLength = writeClaims(buf, subject, scope, issuedAt.getEpochSecond(), expiresAt.getEpochSecond());
+
+        int maxLength = ENCODED_HEADER.length + base64Length(claimsLength) + 1 + base64Length(SIGNATURE_LENGTH);
+        byte[] token = buf.token(maxLength);
+        System.arraycopy(ENCODED_HEADER, 0, token, 0, ENCODED_HEADER.length);
+        int pos = base64Url(buf.claims, claimsLength, token, ENCODED_HEADER.length);
+
+        buf.mac.update(token, 0, pos);
+        try {
+            buf.mac.doFinal(buf.signature, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign token", e);
+        }
+        token[pos++] = '.';
+        pos = base64Url(buf.signature, SIGNATURE_LENGTH, token, pos);
+
+        return new String(token, 0, pos, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Space-separated {@code scope} claim for an authority set; the handful of distinct role sets are memoized.
+     */
+    @SuppressWarnings("unchecked")
+    public String scopeOf(Collection<? extends GrantedAuthority> authorities) {
+        Set<GrantedAuthority> key = authorities instanceof Set<?> set
+                ? (Set<GrantedAuthority>) set
+                : Set.copyOf(authorities);
+        String scope = scopes.get(key);
+        if (scope == null) {
+            scope = JwtProvider.buildScope(authorities);
+            if (scopes.size() < MAX_CACHED_SCOPES) {
+                scopes.putIfAbsent(Set.copyOf(key), scope);
+            }
+        }
+        return scope;
+    }
+
+    private int writeClaims(Buffers buf, String subject, String scope, long issuedAt, long expiresAt) {
+        buf.claims(6 * (subject.length() + scope.length()) + 96);
+        byte[] out = buf.claims;
+        int pos = writeAscii(out, 0, "{\"sub\":");
+        pos = writeString(out, pos, subject);
+        pos = writeAscii(out, pos, ",\"iat\":");
+        pos = writeLong(out, pos, issuedAt);
+        pos = writeAscii(out, pos, ",\"exp\":");
+        pos = writeLong(out, pos, expiresAt);
+        pos = writeAscii(out, pos, ",\"scope\":");
+        pos = writeString(out, pos, scope);
+        out[pos++] = '}';
+        return pos;
+    }
+
+    private static int writeAscii(byte[] out, int pos, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            out[pos++] = (byte) value.charAt(i);
+        }
+        return pos;
+    }
+
+    private static int writeLong(byte[] out, int pos, long value) {
+        if (value == 0) {
+            out[pos++] = '0';
+            return pos;
+        }
+        if (value < 0) {
+            out[pos++] = '-';
+            value = -value;
+        }
+        int start = pos;
+        while (value > 0) {
+            out[pos++] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        for (int i = start, j = pos - 1; i < j; i++, j--) {
+            byte tmp = out[i];
+            out[i] = out[j];
+            out[j] = tmp;
+        }
+        return pos;
+    }
+
+    private static int writeString(byte[] out, int pos, String value) {
+        out[pos++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out[pos++] = '\\';
+                out[pos++] = (byte) c;
+            } else if (c < 0x20) {
+                out[pos++] = '\\';
+                out[pos++] = 'u';
+                out[pos++] = '0';
+                out[pos++] = '0';
+                out[pos++] = HEX[c >> 4];
+                out[pos++] = HEX[c & 0xF];
+            } else if (c < 0x80) {
+                out[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                out[pos++] = (byte) (0xC0 | (c >> 6));
+                out[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                out[pos++] = (byte) (0xF0 | (cp >> 18));
+                out[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                out[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                out[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                out[pos++] = '?';
+            } else {
+                out[pos++] = (byte) (0xE0 | (c >> 12));
+                out[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        out[pos++] = '"';
+        return pos;
+    }
+
+    private static int base64Length(int length) {
+        return (length * 4 + 2) / 3;
+    }
+
+    private static int base64Url(byte[] src, int length, byte[] dst, int pos) {
+        int i = 0;
+        for (; i + 2 < length; i += 3) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+            dst[pos++] = BASE64_URL[bits >>> 18];
+            dst[pos++] = BASE64_URL[(bits >>> 12) & 0x3F];
+            dst[pos++] = BASE64_URL[(bits >>> 6) & 0x3F];
+            dst[pos++] = BASE64_URL[bits & 0x3F];
+        }
+        int remaining = length - i;
+        if (remaining == 1) {
+            int bits = (src[i] & 0xFF) << 16;
+            dst[pos++] = BASE64_URL[bits >>> 18];
+            dst[pos++] = BASE64_URL[(bits >>> 12) & 0x3F];
+        } else if (remaining == 2) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8;
+            dst[pos++] = BASE64_URL[bits >>> 18];
+            dst[pos++] = BASE64_URL[(bits >>> 12) & 0x3F];
+            dst[pos++] = BASE64_URL[(bits >>> 6) & 0x3F];
+        }
+        return pos;
+    }
+
+    private static byte[] encodeHeader() {
+        byte[] header = "{\"alg\":\"HS256\"}".getBytes(StandardCharsets.US_ASCII);
+        byte[] encoded = new byte[base64Length(header.length) + 1];
+        int pos = base64Url(header, header.length, encoded, 0);
+        encoded[pos] = '.';
+        return encoded;
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available for the configured secret", e);
+        }
+    }
+
+    private static final class Buffers {
+        private final Mac mac;
+        private byte[] claims = new byte[256];
+        private byte[] token = new byte[512];
+        private final byte[] signature = new byte[SIGNATURE_LENGTH];
+
+        Buffers(Mac mac) {
+            this.mac = mac;
+        }
+
+        void claims(int capacity) {
+            if (claims.length < capacity) {
+                claims = Arrays.copyOf(claims, Math.max(capacity, claims.length * 2));
+            }
+        }
+
+        byte[] token(int capacity) {
+            if (token.length < capacity) {
+                token = new byte[Math.max(capacity, token.length * 2)];
+            }
+            return token;
+        }
+    }
+}
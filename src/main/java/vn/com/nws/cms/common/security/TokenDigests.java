@@ -0,0 +1,35 @@
+package vn.com.nws.cms.common.security;
+
+import vn.com.nws.cms.common.util.ObjectPool;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * SHA-256 fingerprints of bearer tokens, used as cache and denylist keys so raw tokens are never retained.
+ */
+public final class TokenDigests {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final ObjectPool<MessageDigest> SHA_256 = new ObjectPool<>(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private TokenDigests() {
+    }
+
+    public static String sha256(String token) {
+        MessageDigest digest = SHA_256.borrow();
+        try {
+            return ENCODER.encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } finally {
+            SHA_256.release(digest);
+        }
+    }
+}
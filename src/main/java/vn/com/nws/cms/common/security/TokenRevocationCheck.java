@@ -0,0 +1,12 @@
+package vn.com.nws.cms.common.security;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Per-request revocation check for verified access tokens. Runs on every decode, cached or not,
+ * so implementations must answer from memory.
+ */
+public interface TokenRevocationCheck {
+
+    boolean isRevoked(String tokenDigest, Jwt jwt);
+}
@@ -0,0 +1,86 @@
+package vn.com.nws.cms.common.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer. Each slot carries a sequence
+ * number: producers claim a position with one CAS on the tail and publish the element by advancing the
+ * slot's sequence; the consumer reads a slot only once it has been published. {@link #offer} never blocks
+ * and fails when the buffer is full. {@link #drain} must only be called from one thread at a time.
+ */
+public class MpscRingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 2 and 2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public boolean offer(T element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long lag = sequences.get(index) - position;
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.set(index, position + 1); // publishes the element to the consumer
+                    return true;
+                }
+            } else if (lag < 0) {
+                return false; // the consumer has not freed this slot yet: full
+            }
+            // else another producer claimed the position first; retry with the new tail
+        }
+    }
+
+    /**
+     * Hands up to {@code max} published elements to {@code consumer}, in order.
+     *
+     * @return the number of elements drained
+     */
+    public int drain(Consumer<? super T> consumer, int max) {
+        long position = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                break; // empty, or the next producer has claimed the slot but not published yet
+            }
+            T element = elements.get(index);
+            elements.lazySet(index, null);
+            sequences.set(index, position + mask + 1); // frees the slot for the producer one lap ahead
+            head = ++position;
+            drained++;
+            consumer.accept(element);
+        }
+        return drained;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,376 @@
+package vn.com.nws.cms.common.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * String map with per-entry expiry whose keys and values live in direct-memory slabs, so millions of
+ * entries cost the collector a few primitive arrays instead of millions of objects. The map is split
+ * into lock-striped segments; each segment indexes its entries with an open-addressing table of
+ * slab addresses and carves slabs into power-of-two chunks that are recycled through free lists.
+ * Slabs are never returned to the OS, so {@code maxBytes} is the ceiling on direct memory in use.
+ */
+public class OffHeapStringMap {
+
+    private static final int SLAB_SIZE = 256 * 1024;
+    private static final int MIN_CHUNK_SHIFT = 6;  // 64 B
+    private static final int MAX_CHUNK_SHIFT = 14; // 16 KiB
+    private static final int HEADER_SIZE = 8 + 4 + 4; // expiresAt, key length, value length
+    private static final long EMPTY = 0;
+    private static final long TOMBSTONE = -1;
+    private static final long NO_CHUNK = -1;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final long maxBytes;
+    private final LongSupplier clock;
+    private final AtomicLong reservedBytes = new AtomicLong();
+
+    public OffHeapStringMap(int concurrency, long maxBytes) {
+        this(concurrency, maxBytes, System::currentTimeMillis);
+    }
+
+    OffHeapStringMap(int concurrency, long maxBytes, LongSupplier clock) {
+        int count = Integer.highestOneBit(Math.max(1, Math.min(concurrency, 1 << 10)) * 2 - 1);
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment();
+        }
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(count);
+        this.maxBytes = maxBytes;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the value, or {@code null} if the key is absent or expired.
+     */
+    public String get(String key) {
+        int hash = spread(key.hashCode());
+        return segmentFor(hash).get(utf8(key), hash, clock.getAsLong());
+    }
+
+    public void put(String key, String value, long ttlMillis) {
+        int hash = spread(key.hashCode());
+        segmentFor(hash).put(utf8(key), hash, utf8(value), clock.getAsLong() + ttlMillis);
+    }
+
+    public boolean remove(String key) {
+        int hash = spread(key.hashCode());
+        return segmentFor(hash).remove(utf8(key), hash);
+    }
+
+    /**
+     * Atomically remaps an entry. {@code remapping} receives the current value ({@code null} if absent or
+     * expired) and returns the new value, which is stored with a fresh {@code ttlMillis}; returning
+     * {@code null} removes the entry and returning the argument itself leaves the entry and its expiry
+     * untouched. Runs under the segment lock, so the function must be short and must not touch this map.
+     *
+     * @return the value held after the call
+     */
+    public String compute(String key, long ttlMillis, UnaryOperator<String> remapping) {
+        int hash = spread(key.hashCode());
+        return segmentFor(hash).compute(utf8(key), hash, ttlMillis, remapping, clock.getAsLong());
+    }
+
+    /**
+     * Frees the chunks of all expired entries.
+     *
+     * @return the number of entries removed
+     */
+    public int purgeExpired() {
+        long now = clock.getAsLong();
+        int removed = 0;
+        for (Segment segment : segments) {
+            removed += segment.purge(now);
+        }
+        return removed;
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    public long reservedBytes() {
+        return reservedBytes.get();
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[segmentShift == 32 ? 0 : hash >>> segmentShift];
+    }
+
+    private static int spread(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int chunkClass(int recordSize) {
+        int shift = Math.max(MIN_CHUNK_SHIFT, 32 - Integer.numberOfLeadingZeros(recordSize - 1));
+        if (shift > MAX_CHUNK_SHIFT) {
+            throw new IllegalArgumentException("Entry of " + recordSize + " bytes exceeds the "
+                    + (1 << MAX_CHUNK_SHIFT) + " byte limit");
+        }
+        return shift - MIN_CHUNK_SHIFT;
+    }
+
+    private final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<ByteBuffer> slabs = new ArrayList<>();
+        private final long[] freeChunks = new long[MAX_CHUNK_SHIFT - MIN_CHUNK_SHIFT + 1];
+        private final int[] openSlab = new int[freeChunks.length];
+        private final int[] openOffset = new int[freeChunks.length];
+        private long[] addresses = new long[16];
+        private int[] hashes = new int[16];
+        private int size;
+        private int used; // live entries plus tombstones
+
+        Segment() {
+            Arrays.fill(freeChunks, NO_CHUNK);
+            Arrays.fill(openSlab, -1);
+        }
+
+        String get(byte[] key, int hash, long now) {
+            lock.lock();
+            try {
+                int slot = find(key, hash);
+                if (slot < 0) {
+                    return null;
+                }
+                long address = addresses[slot];
+                if (expiresAt(address) <= now) {
+                    removeAt(slot);
+                    return null;
+                }
+                return value(address);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(byte[] key, int hash, byte[] value, long expiresAt) {
+            lock.lock();
+            try {
+                long address = write(key, value, expiresAt);
+                int slot = find(key, hash);
+                if (slot >= 0) {
+                    free(addresses[slot]);
+                    addresses[slot] = address;
+                } else {
+                    insert(hash, address);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean remove(byte[] key, int hash) {
+            lock.lock();
+            try {
+                int slot = find(key, hash);
+                if (slot < 0) {
+                    return false;
+                }
+                removeAt(slot);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        String compute(byte[] key, int hash, long ttlMillis, UnaryOperator<String> remapping, long now) {
+            lock.lock();
+            try {
+                int slot = find(key, hash);
+                if (slot >= 0 && expiresAt(addresses[slot]) <= now) {
+                    removeAt(slot);
+                    slot = -1;
+                }
+                String current = slot >= 0 ? value(addresses[slot]) : null;
+                String updated = remapping.apply(current);
+                if (updated == current) {
+                    return current;
+                }
+                if (updated == null) {
+                    removeAt(slot);
+                    return null;
+                }
+                long address = write(key, utf8(updated), now + ttlMillis);
+                if (slot >= 0) {
+                    free(addresses[slot]);
+                    addresses[slot] = address;
+                } else {
+                    insert(hash, address);
+                }
+                return updated;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int purge(long now) {
+            lock.lock();
+            try {
+                int removed = 0;
+                for (int slot = 0; slot < addresses.length; slot++) {
+                    long address = addresses[slot];
+                    if (address != EMPTY && address != TOMBSTONE && expiresAt(address) <= now) {
+                        removeAt(slot);
+                        removed++;
+                    }
+                }
+                return removed;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int find(byte[] key, int hash) {
+            int mask = addresses.length - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                long address = addresses[slot];
+                if (address == EMPTY) {
+                    return -1;
+                }
+                if (address != TOMBSTONE && hashes[slot] == hash && keyEquals(address, key)) {
+                    return slot;
+                }
+            }
+        }
+
+        private void insert(int hash, long address) {
+            if ((used + 1) * 4 > addresses.length * 3) {
+                rehash(size * 4 >= addresses.length ? addresses.length * 2 : addresses.length);
+            }
+            int mask = addresses.length - 1;
+            int slot = hash & mask;
+            while (addresses[slot] != EMPTY && addresses[slot] != TOMBSTONE) {
+                slot = (slot + 1) & mask;
+            }
+            if (addresses[slot] == EMPTY) {
+                used++;
+            }
+            addresses[slot] = address;
+            hashes[slot] = hash;
+            size++;
+        }
+
+        private void removeAt(int slot) {
+            free(addresses[slot]);
+            addresses[slot] = TOMBSTONE;
+            size--;
+        }
+
+        private void rehash(int capacity) {
+            long[] oldAddresses = addresses;
+            int[] oldHashes = hashes;
+            addresses = new long[capacity];
+            hashes = new int[capacity];
+            int mask = capacity - 1;
+            for (int i = 0; i < oldAddresses.length; i++) {
+                long address = oldAddresses[i];
+                if (address != EMPTY && address != TOMBSTONE) {
+                    int slot = oldHashes[i] & mask;
+                    while (addresses[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    addresses[slot] = address;
+                    hashes[slot] = oldHashes[i];
+                }
+            }
+            used = size;
+        }
+
+        private long write(byte[] key, byte[] value, long expiresAt) {
+            long address = allocate(chunkClass(HEADER_SIZE + key.length + value.length));
+            ByteBuffer slab = slab(address);
+            int offset = offset(address);
+            slab.putLong(offset, expiresAt);
+            slab.putInt(offset + 8, key.length);
+            slab.putInt(offset + 12, value.length);
+            slab.put(offset + HEADER_SIZE, key);
+            slab.put(offset + HEADER_SIZE + key.length, value);
+            return address;
+        }
+
+        private long allocate(int chunkClass) {
+            long chunk = freeChunks[chunkClass];
+            if (chunk != NO_CHUNK) {
+                // a free chunk stores the address of the next free chunk of its class in its first 8 bytes
+                freeChunks[chunkClass] = slab(chunk).getLong(offset(chunk));
+                return chunk;
+            }
+            int chunkSize = 1 << (chunkClass + MIN_CHUNK_SHIFT);
+            if (openSlab[chunkClass] < 0 || openOffset[chunkClass] + chunkSize > SLAB_SIZE) {
+                if (reservedBytes.addAndGet(SLAB_SIZE) > maxBytes) {
+                    reservedBytes.addAndGet(-SLAB_SIZE);
+                    throw new IllegalStateException("Off-heap map is full (" + maxBytes + " bytes)");
+                }
+                slabs.add(ByteBuffer.allocateDirect(SLAB_SIZE));
+                openSlab[chunkClass] = slabs.size() - 1;
+                openOffset[chunkClass] = 0;
+            }
+            int offset = openOffset[chunkClass];
+            openOffset[chunkClass] += chunkSize;
+            return ((long) (openSlab[chunkClass] + 1) << 32) | offset;
+        }
+
+        private void free(long address) {
+            ByteBuffer slab = slab(address);
+            int offset = offset(address);
+            int chunkClass = chunkClass(HEADER_SIZE + slab.getInt(offset + 8) + slab.getInt(offset + 12));
+            slab.putLong(offset, freeChunks[chunkClass]);
+            freeChunks[chunkClass] = address;
+        }
+
+        private long expiresAt(long address) {
+            return slab(address).getLong(offset(address));
+        }
+
+        private String value(long address) {
+            ByteBuffer slab = slab(address);
+            int offset = offset(address);
+            int keyLength = slab.getInt(offset + 8);
+            byte[] value = new byte[slab.getInt(offset + 12)];
+            slab.get(offset + HEADER_SIZE + keyLength, value);
+            return new String(value, StandardCharsets.UTF_8);
+        }
+
+        private boolean keyEquals(long address, byte[] key) {
+            ByteBuffer slab = slab(address);
+            int offset = offset(address);
+            if (slab.getInt(offset + 8) != key.length) {
+                return false;
+            }
+            int start = offset + HEADER_SIZE;
+            for (int i = 0; i < key.length; i++) {
+                if (slab.get(start + i) != key[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private ByteBuffer slab(long address) {
+            return slabs.get((int) (address >>> 32) - 1);
+        }
+
+        private static int offset(long address) {
+            return (int) address;
+        }
+    }
+}
@@ -2,7 +2,10 @@ package vn.com.nws.cms.modules.auth.api;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 import vn.com.nws.cms.common.dto.ApiResponse;
 import vn.com.nws.cms.modules.auth.api.dto.*;
@@ -27,6 +30,12 @@ public class AuthController {
         return ResponseEntity.ok(ApiResponse.success("User registered successfully", null));
     }
 
+    @GetMapping("/availability")
+    public ResponseEntity<ApiResponse<AvailabilityResponse>> checkAvailability(
+            @RequestParam(required = false) String username, @RequestParam(required = false) String email) {
+        return ResponseEntity.ok(ApiResponse.success(authService.checkAvailability(username, email)));
+    }
+
     @PostMapping("/refresh")
     public ResponseEntity<ApiResponse<TokenResponse>> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
         TokenResponse tokenResponse = authService.refreshToken(request);
@@ -34,13 +43,21 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<ApiResponse<Void>> logout(@RequestBody(required = false) RefreshTokenRequest request) {
-        if (request != null) {
-            authService.logout(request.getRefreshToken());
-        }
+    public ResponseEntity<ApiResponse<Void>> logout(@RequestBody(required = false) RefreshTokenRequest request,
+                                                    @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7)
+                : null;
+        authService.logout(request != null ? request.getRefreshToken() : null, accessToken);
         return ResponseEntity.ok(ApiResponse.success("Logged out successfully", null));
     }
 
+    @PostMapping("/logout-all")
+    public ResponseEntity<ApiResponse<Void>> logoutAll(@AuthenticationPrincipal Jwt jwt) {
+        authService.logoutAll(jwt.getSubject());
+        return ResponseEntity.ok(ApiResponse.success("Logged out from all sessions", null));
+    }
+
     @PostMapping("/forgot-password")
     public ResponseEntity<ApiResponse<Void>> forgotPassword(@Valid @RequestBody ForgotPasswordRequest request) {
         authService.forgotPassword(request);
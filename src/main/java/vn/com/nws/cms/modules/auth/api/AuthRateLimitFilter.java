@@ -0,0 +1,230 @@
+package vn.com.nws.cms.modules.auth.api;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.security.autoconfigure.web.servlet.SecurityFilterProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import vn.com.nws.cms.common.dto.ApiResponse;
+import vn.com.nws.cms.common.ratelimit.RateLimit;
+import vn.com.nws.cms.common.ratelimit.RateLimiter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Throttles the unauthenticated auth endpoints per client IP and per account (username, email or refresh
+ * token family) before any password hashing or token store write happens. Rejections get 429 with
+ * {@code Retry-After}. A body the account cannot be read from never reaches the controller: over
+ * {@link #MAX_BUFFERED_BODY} it gets 413, malformed or without the account field it gets 400. Runs ahead of
+ * the Spring Security chain. Behind a reverse proxy set {@code server.forward-headers-strategy} so the
+ * client IP is the real one.
+ */
+@Component
+@Order(SecurityFilterProperties.DEFAULT_FILTER_ORDER - 1)
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private static final int MAX_BUFFERED_BODY = 16 * 1024;
+
+    private final RateLimiter rateLimiter;
+    private final JsonMapper jsonMapper;
+    private final boolean enabled;
+    private final Map<String, Rule> rules;
+    private final MeterRegistry meterRegistry;
+
+    public AuthRateLimitFilter(RateLimiter rateLimiter,
+                               JsonMapper jsonMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${auth.rate-limit.enabled:true}") boolean enabled,
+                               @Value("${auth.rate-limit.login.per-ip:30/1m}") String loginPerIp,
+                               @Value("${auth.rate-limit.login.per-account:10/5m}") String loginPerAccount,
+                               @Value("${auth.rate-limit.refresh.per-ip:120/1m}") String refreshPerIp,
+                               @Value("${auth.rate-limit.refresh.per-account:10/1m}") String refreshPerAccount,
+                               @Value("${auth.rate-limit.forgot-password.per-ip:10/10m}") String forgotPasswordPerIp,
+                               @Value("${auth.rate-limit.forgot-password.per-account:3/15m}") String forgotPasswordPerAccount) {
+        this.rateLimiter = rateLimiter;
+        this.jsonMapper = jsonMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.rules = Map.of(
+                "/api/auth/login", new Rule("login", "username",
+                        RateLimit.parse(loginPerIp), RateLimit.parse(loginPerAccount)),
+                "/api/auth/refresh", new Rule("refresh", "refreshToken",
+                        RateLimit.parse(refreshPerIp), RateLimit.parse(refreshPerAccount)),
+                "/api/auth/forgot-password", new Rule("forgot-password", "email",
+                        RateLimit.parse(forgotPasswordPerIp), RateLimit.parse(forgotPasswordPerAccount)));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !HttpMethod.POST.matches(request.getMethod()) || !rules.containsKey(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Rule rule = rules.get(request.getServletPath());
+
+        Duration wait = rateLimiter.tryAcquire(rule.endpoint() + ":ip:" + request.getRemoteAddr(), rule.perIp());
+        if (!wait.isZero()) {
+            reject(response, rule, "ip", wait);
+            return;
+        }
+
+        // Every request that reaches the controller is charged to an account; an unreadable body would otherwise skip it
+        if (request.getContentLengthLong() > MAX_BUFFERED_BODY) {
+            writeError(response, HttpStatus.CONTENT_TOO_LARGE, "Request body is too large");
+            return;
+        }
+        BufferedBodyRequest buffered = new BufferedBodyRequest(request);
+        if (!buffered.complete()) {
+            writeError(response, HttpStatus.CONTENT_TOO_LARGE, "Request body is too large");
+            return;
+        }
+        String account;
+        try {
+            account = accountOf(rule, buffered.body());
+        } catch (JacksonException e) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Malformed JSON request body");
+            return;
+        }
+        if (account == null) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Request body must contain " + rule.accountField());
+            return;
+        }
+        wait = rateLimiter.tryAcquire(rule.endpoint() + ":account:" + account, rule.perAccount());
+        if (!wait.isZero()) {
+            reject(response, rule, "account", wait);
+            return;
+        }
+        filterChain.doFilter(buffered, response);
+    }
+
+    /**
+     * @return the account key, or {@code null} if the field is missing, blank or not a scalar
+     */
+    private String accountOf(Rule rule, byte[] body) {
+        JsonNode field = jsonMapper.readTree(body).get(rule.accountField());
+        // Numbers and booleans bind to the String field of the request too, so they count as accounts
+        if (field == null || !field.isValueNode() || field.isNull() || field.asString().isBlank()) {
+            return null;
+        }
+        String value = field.asString();
+        if ("refreshToken".equals(rule.accountField())) {
+            int separator = value.indexOf('.');
+            return separator > 0 ? value.substring(0, separator) : null; // family, see AuthService
+        }
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private void reject(HttpServletResponse response, Rule rule, String dimension, Duration wait) throws IOException {
+        Counter.builder("auth.rate-limit.rejected")
+                .tag("endpoint", rule.endpoint())
+                .tag("dimension", dimension)
+                .register(meterRegistry)
+                .increment();
+        long retryAfterSeconds = Math.max(1, (wait.toMillis() + 999) / 1000);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        writeError(response, HttpStatus.TOO_MANY_REQUESTS, "Too many requests, retry in " + retryAfterSeconds + "s");
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        jsonMapper.writeValue(response.getOutputStream(), ApiResponse.error(status.value(), message));
+    }
+
+    private record Rule(String endpoint, String accountField, RateLimit perIp, RateLimit perAccount) {
+    }
+
+    /**
+     * Reads up to {@link #MAX_BUFFERED_BODY} bytes of the body so the account can be extracted, then replays
+     * them to the controller. Only a complete body is ever replayed.
+     */
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+        private final boolean complete;
+
+        BufferedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            byte[] read = request.getInputStream().readNBytes(MAX_BUFFERED_BODY + 1);
+            this.complete = read.length <= MAX_BUFFERED_BODY;
+            this.body = read;
+        }
+
+        byte[] body() {
+            return body;
+        }
+
+        boolean complete() {
+            return complete;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            InputStream replay = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    return replay.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    return replay.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    try {
+                        return replay.available() == 0;
+                    } catch (IOException e) {
+                        return true;
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Asynchronous reads are not supported");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
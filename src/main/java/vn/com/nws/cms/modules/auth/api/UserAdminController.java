@@ -0,0 +1,104 @@
+package vn.com.nws.cms.modules.auth.api;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import vn.com.nws.cms.common.dto.ApiResponse;
+import vn.com.nws.cms.common.dto.PageResponse;
+import vn.com.nws.cms.common.exception.BusinessException;
+import vn.com.nws.cms.modules.auth.api.dto.UserImportJobResponse;
+import vn.com.nws.cms.modules.auth.api.dto.UserSummaryResponse;
+import vn.com.nws.cms.modules.auth.application.UserAdminService;
+import vn.com.nws.cms.modules.auth.application.UserAdminService.ExportFormat;
+import vn.com.nws.cms.modules.auth.application.UserImportService;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+public class UserAdminController {
+
+    private final UserImportService userImportService;
+    private final UserAdminService userAdminService;
+
+    @Value("${auth.export.request-timeout:30m}")
+    private Duration exportTimeout;
+
+    /**
+     * Keyset-paginated listing; pass {@code nextCursor} of the previous page as {@code cursor}.
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<PageResponse<UserSummaryResponse>>> listUsers(
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(ApiResponse.success(userAdminService.listUsers(role, sort, cursor, size, includeTotal)));
+    }
+
+    /**
+     * Streams all users as CSV or NDJSON without loading them into memory. {@code afterId} resumes an
+     * interrupted export; {@code gzip=true} returns a compressed attachment. Only this request gets the
+     * long {@code auth.export.request-timeout}; other async requests keep the container default.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletRequest request) {
+        ExportFormat exportFormat = switch (format.toLowerCase(Locale.ROOT)) {
+            case "csv" -> ExportFormat.CSV;
+            case "ndjson" -> ExportFormat.NDJSON;
+            default -> throw new BusinessException("Unsupported export format: " + format);
+        };
+        String filename = "users." + format.toLowerCase(Locale.ROOT) + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : exportFormat == ExportFormat.CSV ? UserImportService.TEXT_CSV : UserImportService.APPLICATION_NDJSON;
+
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeout.toMillis());
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024)) {
+                    userAdminService.exportUsers(compressed, exportFormat, afterId);
+                }
+            } else {
+                userAdminService.exportUsers(out, exportFormat, afterId);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    /**
+     * Accepts a CSV ({@code text/csv}, header row required) or NDJSON ({@code application/x-ndjson})
+     * body of {@code username, email, password, role} records and imports it in the background.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ApiResponse<UserImportJobResponse>> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) {
+        UserImportJobResponse job = userImportService.startImport(body, contentType);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/admin/users/import/" + job.getJobId()))
+                .body(ApiResponse.success("Import started", job));
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ApiResponse<UserImportJobResponse>> importStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(ApiResponse.success(userImportService.findJob(jobId)));
+    }
+}
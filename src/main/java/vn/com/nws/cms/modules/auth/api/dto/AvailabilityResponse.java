@@ -0,0 +1,15 @@
+package vn.com.nws.cms.modules.auth.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvailabilityResponse {
+    private Boolean usernameAvailable; // null when not asked
+    private Boolean emailAvailable;
+}
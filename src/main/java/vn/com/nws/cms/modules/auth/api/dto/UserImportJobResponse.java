@@ -0,0 +1,26 @@
+package vn.com.nws.cms.modules.auth.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportJobResponse {
+    private String jobId;
+    private Status status;
+    private Instant startedAt;
+    private Instant finishedAt;
+    /** Counts so far while running; the full report, with every row error, once completed. */
+    private UserImportResponse report;
+    private String error;
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,20 @@
+package vn.com.nws.cms.modules.auth.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserSummaryResponse {
+    private Long id;
+    private String username;
+    private String email;
+    private String role;
+    private LocalDateTime createdAt;
+}
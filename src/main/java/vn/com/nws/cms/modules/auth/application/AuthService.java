@@ -3,34 +3,65 @@ package vn.com.nws.cms.modules.auth.application;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.AccountStatusException;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vn.com.nws.cms.common.audit.AuditEventType;
+import vn.com.nws.cms.common.audit.AuditLog;
+import vn.com.nws.cms.common.datasource.ReplicaRoutingDataSource;
 import vn.com.nws.cms.common.exception.BusinessException;
+import vn.com.nws.cms.common.mail.EmailOutbox;
+import vn.com.nws.cms.common.monitoring.StageTimers;
 import vn.com.nws.cms.common.security.JwtProvider;
+import vn.com.nws.cms.common.security.TokenDigests;
 import vn.com.nws.cms.modules.auth.api.dto.*;
+import vn.com.nws.cms.modules.auth.domain.model.RefreshSession;
 import vn.com.nws.cms.modules.auth.domain.model.User;
+import vn.com.nws.cms.modules.auth.domain.model.UserCredentials;
+import vn.com.nws.cms.modules.auth.domain.repository.TokenStore;
 import vn.com.nws.cms.modules.auth.domain.repository.UserRepository;
+import vn.com.nws.cms.modules.auth.infrastructure.AccessTokenDenylist;
+import vn.com.nws.cms.modules.auth.infrastructure.UserDetailsCache;
+import vn.com.nws.cms.modules.auth.infrastructure.UserIdentityFilter;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuthService {
 
+    private static final char REFRESH_TOKEN_SEPARATOR = '.';
+    private static final Duration RESET_TOKEN_TTL = Duration.ofMinutes(15);
+    private static final String STAGE_METRIC = "auth.stage";
+
     private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtProvider jwtProvider;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final TokenStore tokenStore;
+    private final UserDetailsCache userDetailsCache;
+    private final UserIdentityFilter userIdentityFilter;
+    private final AccessTokenDenylist accessTokenDenylist;
+    private final JwtDecoder jwtDecoder;
+    private final StageTimers stageTimers;
+    private final AuditLog auditLog;
+    private final EmailOutbox emailOutbox;
 
     @Value("${jwt.refresh-expiration}")
     private long refreshExpiration;
@@ -38,142 +69,231 @@ public class AuthService {
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    @Value("${auth.sessions.index-ttl:30d}")
+    private Duration sessionIndexTtl;
+
+    @Value("${auth.sessions.max-per-user:20}")
+    private int maxSessionsPerUser;
+
+    @Value("${auth.reset-password.url:http://localhost:3000/reset-password?token=}")
+    private String resetPasswordUrl;
+
     public TokenResponse login(LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+        Authentication authentication;
+        try {
+            authentication = time("login", "authenticate", () -> authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword())));
+        } catch (BadCredentialsException | AccountStatusException e) {
+            auditLog.record(AuditEventType.LOGIN_FAILED, loginRequest.getUsername(), e.getClass().getSimpleName());
+            throw e;
+        }
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtProvider.generateToken(authentication);
-        
-        User user = userRepository.findByUsername(loginRequest.getUsername())
+        String jwt = time("login", "jwt_sign", () -> jwtProvider.generateToken(authentication));
+
+        // The user just authenticated, so a miss means the replica has not caught up yet
+        UserCredentials user = time("login", "user_lookup", () -> userRepository.findCredentialsByUsername(loginRequest.getUsername())
+                        .or(() -> ReplicaRoutingDataSource.onPrimary(() -> userRepository.findCredentialsByUsername(loginRequest.getUsername()))))
                 .orElseThrow(() -> new BusinessException("User not found"));
 
-        String refreshToken = jwtProvider.generateRefreshToken(user.getUsername());
-        
-        // Save refresh token to Redis (Key: auth:rt:{token} -> username)
-        saveRefreshToken(user.getUsername(), refreshToken);
+        String refreshToken = time("login", "token_store", () -> issueRefreshToken(user.username(), user.role()));
+        auditLog.record(AuditEventType.LOGIN, user.username());
 
         return TokenResponse.builder()
                 .accessToken(jwt)
                 .refreshToken(refreshToken)
                 .tokenType("Bearer")
                 .expiresIn(jwtExpiration / 1000)
-                .username(user.getUsername())
-                .role(user.getRole())
+                .username(user.username())
+                .role(user.role())
                 .build();
     }
 
     @Transactional
     public void register(RegisterRequest registerRequest) {
-        if (userRepository.existsByUsername(registerRequest.getUsername())) {
+        // The filter rules out most new names without a query; the unique constraints catch the rest
+        if (userIdentityFilter.mightContainUsername(registerRequest.getUsername())
+                && time("register", "exists_check", () -> userRepository.existsByUsernameIgnoreCase(registerRequest.getUsername()))) {
             throw new BusinessException("Username is already taken!");
         }
 
-        if (userRepository.existsByEmail(registerRequest.getEmail())) {
+        if (userIdentityFilter.mightContainEmail(registerRequest.getEmail())
+                && time("register", "exists_check", () -> userRepository.existsByEmailIgnoreCase(registerRequest.getEmail()))) {
             throw new BusinessException("Email is already in use!");
         }
 
         User user = User.builder()
                 .username(registerRequest.getUsername())
                 .email(registerRequest.getEmail())
-                .password(passwordEncoder.encode(registerRequest.getPassword()))
+                .password(time("register", "password_hash", () -> passwordEncoder.encode(registerRequest.getPassword())))
                 .role(registerRequest.getRole() != null ? "ROLE_" + registerRequest.getRole() : "ROLE_STUDENT")
                 .build();
 
-        userRepository.save(user);
+        try {
+            time("register", "user_insert", () -> userRepository.saveAndFlush(user));
+        } catch (DataIntegrityViolationException e) {
+            throw new BusinessException("Username or email is already in use!");
+        }
+        userIdentityFilter.add(user.getUsername(), user.getEmail());
+    }
+
+    public AvailabilityResponse checkAvailability(String username, String email) {
+        return AvailabilityResponse.builder()
+                .usernameAvailable(username == null ? null
+                        : !(userIdentityFilter.mightContainUsername(username) && userRepository.existsByUsernameIgnoreCase(username)))
+                .emailAvailable(email == null ? null
+                        : !(userIdentityFilter.mightContainEmail(email) && userRepository.existsByEmailIgnoreCase(email)))
+                .build();
     }
 
     public TokenResponse refreshToken(RefreshTokenRequest request) {
         String requestRefreshToken = request.getRefreshToken();
-        
-        // In a real app, we should parse the username from the refresh token or pass it in request
-        // For simplicity here, we assume the client knows the flow or we use a structured refresh token.
-        // BUT, since we stored simple UUID in Redis mapped by Username, we can't easily reverse lookup without scanning.
-        // Improvement: Refresh Token should be a signed JWT or contain the username, OR client sends username.
-        
-        // Let's assume for this basic impl, we require the user to be logged in (which defeats the purpose if access token expired)
-        // OR we change the Redis key strategy.
-        // Better Strategy: The Refresh Token itself is the Key in Redis, Value is Username.
-        
-        // For now, let's fix the Login logic to store "auth:rt:{refreshToken}" -> username
-        // But wait, we want to invalidate old tokens by username too.
-        // So we store two keys: "auth:user:{username}:rt" -> refreshToken AND "auth:rt:{refreshToken}" -> username
-        
-        // Let's stick to the simplest working model for this demo:
-        // We will assume the refresh token IS the key to find the user.
-        // NOTE: This requires changing the Login logic slightly (done below in refactor).
-        
-        // Refactored Logic for this method:
-        // 1. Check if token exists in Redis (Key: auth:rt:{token})
-        // 2. If exists, get username
-        // 3. Generate new tokens
-        // 4. Update Redis
-        
-        String username = (String) redisTemplate.opsForValue().get("auth:rt:" + requestRefreshToken);
-        if (username == null) {
+        int separator = requestRefreshToken.indexOf(REFRESH_TOKEN_SEPARATOR);
+        if (separator <= 0) {
             throw new BusinessException("Refresh token is invalid or expired!");
         }
+        String family = requestRefreshToken.substring(0, separator);
+        String newSecret = jwtProvider.generateRefreshToken(family);
 
-        // Generate new Access Token
-        String newAccessToken = jwtProvider.generateToken(username);
-        String newRefreshToken = jwtProvider.generateRefreshToken(username);
-
-        // Delete old token mapping
-        redisTemplate.delete("auth:rt:" + requestRefreshToken);
-        
-        // Save new token mapping
-        redisTemplate.opsForValue().set("auth:rt:" + newRefreshToken, username, refreshExpiration, TimeUnit.MILLISECONDS);
-        
-        User user = userRepository.findByUsername(username).orElseThrow(() -> new BusinessException("User not found"));
+        // Compare, rotate and extend TTL atomically; a concurrent retry with the same token loses.
+        RefreshSession session = time("refresh", "token_rotate", () -> tokenStore.rotateRefreshSession(family,
+                        requestRefreshToken.substring(separator + 1), newSecret, Duration.ofMillis(refreshExpiration)))
+                .orElseThrow(() -> new BusinessException("Refresh token is invalid or expired!"));
+        // Catches families that escaped the session index (e.g. the index expired) after a "log out everywhere"
+        if (accessTokenDenylist.isRevokedSince(session.username(), session.issuedAt())) {
+            tokenStore.deleteRefreshSession(family);
+            throw new BusinessException("Refresh token is invalid or expired!");
+        }
 
+        String accessToken = time("refresh", "jwt_sign", () -> jwtProvider.generateTokenWithRole(session.username(), session.role()));
+        auditLog.record(AuditEventType.REFRESH, session.username());
         return TokenResponse.builder()
-                .accessToken(newAccessToken)
-                .refreshToken(newRefreshToken)
+                .accessToken(accessToken)
+                .refreshToken(family + REFRESH_TOKEN_SEPARATOR + newSecret)
                 .tokenType("Bearer")
                 .expiresIn(jwtExpiration / 1000)
-                .username(username)
-                .role(user.getRole())
+                .username(session.username())
+                .role(session.role())
                 .build();
     }
     
-    // Adjusted Login Logic for Redis Key
-    public void saveRefreshToken(String username, String refreshToken) {
-        redisTemplate.opsForValue().set("auth:rt:" + refreshToken, username, refreshExpiration, TimeUnit.MILLISECONDS);
+    /**
+     * Starts a new refresh token family. The token is {@code family.secret}; the token store keeps one
+     * entry per family holding the current secret, so rotation touches a single entry.
+     */
+    public String issueRefreshToken(String username, String role) {
+        String family = UUID.randomUUID().toString();
+        String secret = jwtProvider.generateRefreshToken(username);
+        long issuedAt = System.currentTimeMillis();
+        tokenStore.saveRefreshSession(family, new RefreshSession(secret, role, issuedAt, username),
+                Duration.ofMillis(refreshExpiration));
+        tokenStore.trackSession(username, family, issuedAt, maxSessionsPerUser, sessionIndexTtl);
+        return family + REFRESH_TOKEN_SEPARATOR + secret;
     }
 
-    public void logout(String refreshToken) {
+    public void logout(String refreshToken, String accessToken) {
+        String username = null;
         if (refreshToken != null) {
-            redisTemplate.delete("auth:rt:" + refreshToken);
+            int separator = refreshToken.indexOf(REFRESH_TOKEN_SEPARATOR);
+            if (separator > 0) {
+                time("logout", "token_revoke", () ->
+                        tokenStore.revokeRefreshSession(refreshToken.substring(0, separator), refreshToken.substring(separator + 1)));
+            }
         }
+        if (accessToken != null) {
+            try {
+                Jwt jwt = jwtDecoder.decode(accessToken);
+                time("logout", "denylist", () -> accessTokenDenylist.revoke(TokenDigests.sha256(accessToken), jwt.getExpiresAt()));
+                username = jwt.getSubject();
+            } catch (JwtException e) {
+                log.debug("Ignoring invalid access token on logout: {}", e.getMessage());
+            }
+        }
+        auditLog.record(AuditEventType.LOGOUT, username);
+    }
+
+    /**
+     * Revokes every refresh session of the user through the session index and every access token
+     * issued so far through the denylist cutoff. Inside a transaction (a password reset) this happens
+     * after commit, so a rolled-back reset does not sign the user out.
+     */
+    public void logoutAll(String username) {
+        afterCommit(() -> {
+            time("logout_all", "denylist", () -> accessTokenDenylist.revokeAllBefore(username, Instant.now()));
+            time("logout_all", "token_store", () -> tokenStore.deleteAllSessions(username));
+            auditLog.record(AuditEventType.LOGOUT_ALL, username);
+        });
     }
 
     public void forgotPassword(ForgotPasswordRequest request) {
-        User user = userRepository.findByEmail(request.getEmail())
+        User user = time("forgot_password", "user_lookup", () -> userRepository.findByEmailIgnoreCase(request.getEmail()))
                 .orElseThrow(() -> new BusinessException("User with email " + request.getEmail() + " not found"));
 
         String resetToken = UUID.randomUUID().toString();
-        
-        // Store reset token in Redis: auth:reset:{token} -> username (TTL: 15 mins)
-        redisTemplate.opsForValue().set("auth:reset:" + resetToken, user.getUsername(), 15, TimeUnit.MINUTES);
 
-        // TODO: Send email
-        log.info("Reset Password Token for {}: {}", user.getEmail(), resetToken);
+        time("forgot_password", "token_store", () -> tokenStore.saveResetToken(resetToken, user.getUsername(), RESET_TOKEN_TTL));
+        time("forgot_password", "outbox", () -> emailOutbox.enqueue(user.getEmail(), "Reset your password",
+                "Hello " + user.getUsername() + ",\n\n"
+                        + "Use the link below to choose a new password. It expires in " + RESET_TOKEN_TTL.toMinutes() + " minutes.\n\n"
+                        + resetPasswordUrl + resetToken + "\n\n"
+                        + "If you did not request this, you can ignore this email."));
+        auditLog.record(AuditEventType.PASSWORD_RESET_REQUESTED, user.getUsername());
     }
 
+    /**
+     * Sets the new password and consumes the reset token only once the update has been written, so a
+     * failed hash or update (e.g. a 503 from a saturated password lane) leaves the token usable.
+     */
     @Transactional
     public void resetPassword(ResetPasswordRequest request) {
-        String username = (String) redisTemplate.opsForValue().get("auth:reset:" + request.getToken());
-        if (username == null) {
-            throw new BusinessException("Invalid or expired reset token");
-        }
+        String username = time("reset_password", "token_store", () -> tokenStore.findResetToken(request.getToken()))
+                .orElseThrow(() -> new BusinessException("Invalid or expired reset token"));
 
-        User user = userRepository.findByUsername(username)
+        User user = time("reset_password", "user_lookup", () -> userRepository.findByUsername(username))
                 .orElseThrow(() -> new BusinessException("User not found"));
 
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
-        userRepository.save(user);
+        user.setPassword(time("reset_password", "password_hash", () -> passwordEncoder.encode(request.getNewPassword())));
+        time("reset_password", "user_update", () -> userRepository.saveAndFlush(user));
+        consumeResetTokenBeforeCommit(request.getToken(), username);
+        userDetailsCache.evict(username);
+        auditLog.record(AuditEventType.PASSWORD_RESET, username);
+        logoutAll(username);
+    }
+
+    /**
+     * Consumes the token as the last step before commit. A concurrent reset with the same token that
+     * loses the GETDEL throws here and rolls back its update.
+     */
+    private void consumeResetTokenBeforeCommit(String token, String username) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (!time("reset_password", "token_consume", () -> tokenStore.consumeResetToken(token))
+                        .filter(username::equals).isPresent()) {
+                    throw new BusinessException("Invalid or expired reset token");
+                }
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private <T> T time(String operation, String stage, Supplier<T> action) {
+        return stageTimers.time(STAGE_METRIC, operation, stage, action);
+    }
 
-        // Delete token
-        redisTemplate.delete("auth:reset:" + request.getToken());
+    private void time(String operation, String stage, Runnable action) {
+        stageTimers.time(STAGE_METRIC, operation, stage, action);
     }
 }
@@ -0,0 +1,123 @@
+package vn.com.nws.cms.modules.auth.application;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+import vn.com.nws.cms.common.dto.PageResponse;
+import vn.com.nws.cms.common.exception.BusinessException;
+import vn.com.nws.cms.common.pagination.KeysetPaginator;
+import vn.com.nws.cms.modules.auth.api.dto.UserSummaryResponse;
+import vn.com.nws.cms.modules.auth.domain.model.User;
+import vn.com.nws.cms.modules.auth.domain.repository.UserRepository;
+import vn.com.nws.cms.modules.auth.infrastructure.UserBulkRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class UserAdminService {
+
+    // Only columns with a plain unique index (V8); the keyset predicate seeks on the raw column, not lower(...)
+    private static final Set<String> SORTABLE = Set.of("id", "username", "email");
+    // Spreadsheets evaluate cells starting with these as formulas
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private final UserRepository userRepository;
+    private final KeysetPaginator keysetPaginator;
+    private final UserBulkRepository userBulkRepository;
+    private final JsonMapper jsonMapper;
+
+    @Transactional(readOnly = true)
+    public PageResponse<UserSummaryResponse> listUsers(String role, String sortBy, String cursor, Integer size,
+                                                       boolean includeTotal) {
+        String sortProperty = sortBy != null ? sortBy : "id";
+        if (!SORTABLE.contains(sortProperty)) {
+            throw new BusinessException("Cannot sort users by " + sortProperty);
+        }
+        Specification<User> specification = role == null
+                ? Specification.unrestricted()
+                : (root, query, cb) -> cb.equal(root.get("role"), role);
+
+        return keysetPaginator.page(userRepository, specification, Sort.by(sortProperty),
+                "users:" + sortProperty + ":" + role, cursor, size, includeTotal, UserAdminService::toSummary);
+    }
+
+    /**
+     * Writes every user with {@code id > afterId} to {@code out} in id order, one row at a time; memory use
+     * is bounded by the JDBC fetch size and the writer buffer. Rows carry their id, so an interrupted
+     * export resumes by passing the last id received as {@code afterId}.
+     */
+    @Transactional(readOnly = true)
+    public void exportUsers(OutputStream out, ExportFormat format, long afterId) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == ExportFormat.CSV && afterId == 0) {
+            writer.write("id,username,email,role,created_at\n");
+        }
+        try {
+            userBulkRepository.forEachUserAfter(afterId, user -> {
+                try {
+                    if (format == ExportFormat.CSV) {
+                        writer.write(Long.toString(user.id()));
+                        writer.write(',');
+                        writer.write(csv(user.username()));
+                        writer.write(',');
+                        writer.write(csv(user.email()));
+                        writer.write(',');
+                        writer.write(csv(user.role()));
+                        writer.write(',');
+                        writer.write(user.createdAt() != null ? user.createdAt().toString() : "");
+                    } else {
+                        writer.write(jsonMapper.writeValueAsString(user));
+                    }
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // client went away; the cursor is closed by the template
+        }
+        writer.flush();
+    }
+
+    /**
+     * Quotes a field per RFC 4180 and neutralizes formula injection by prefixing a {@code '} to values that
+     * a spreadsheet would evaluate.
+     */
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    public enum ExportFormat {
+        CSV, NDJSON
+    }
+
+    static UserSummaryResponse toSummary(User user) {
+        return UserSummaryResponse.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .role(user.getRole())
+                .createdAt(user.getCreatedAt())
+                .build();
+    }
+}
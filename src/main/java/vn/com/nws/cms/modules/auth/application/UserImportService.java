@@ -0,0 +1,504 @@
+package vn.com.nws.cms.modules.auth.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+import vn.com.nws.cms.common.exception.BusinessException;
+import vn.com.nws.cms.common.exception.ServiceUnavailableException;
+import vn.com.nws.cms.modules.auth.api.dto.RegisterRequest;
+import vn.com.nws.cms.modules.auth.api.dto.UserImportJobResponse;
+import vn.com.nws.cms.modules.auth.api.dto.UserImportJobResponse.Status;
+import vn.com.nws.cms.modules.auth.api.dto.UserImportResponse;
+import vn.com.nws.cms.modules.auth.api.dto.UserImportResponse.RowError;
+import vn.com.nws.cms.modules.auth.infrastructure.UserBulkRepository;
+import vn.com.nws.cms.modules.auth.infrastructure.UserBulkRepository.NewUser;
+import vn.com.nws.cms.modules.auth.infrastructure.UserIdentityFilter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Bulk user onboarding as a background job. The upload (CSV with a header row, or NDJSON with
+ * {@link RegisterRequest} fields) is spooled to a temporary file and the request returns a job id at once;
+ * the job then processes the file in batches: rows are validated like a registration, checked for
+ * duplicates with one query per batch, hashed on a small low-priority pool and inserted with a single
+ * statement. Every rejected row is reported with its line number; accepted batches stay committed.
+ * Job status is kept on the node for {@code auth.import.job-retention} and, with Redis, mirrored to
+ * {@code auth:import:{jobId}} so any node can answer a status request.
+ */
+@Service
+@Slf4j
+public class UserImportService {
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final Set<String> ROLES = Set.of("ADMIN", "TEACHER", "STUDENT");
+    private static final String JOB_KEY_PREFIX = "auth:import:";
+    private static final long RETRY_AFTER_SECONDS = 30;
+
+    private final UserBulkRepository userBulkRepository;
+    private final UserIdentityFilter userIdentityFilter;
+    private final JsonMapper jsonMapper;
+    private final Validator validator;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final boolean shared;
+    // Not the login lane: a bulk import must not fill its queue and shed interactive logins. Instead the
+    // import hashes on a few minimum-priority threads, leaving most cores to the lane.
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final ExecutorService hashingPool;
+    private final ExecutorService importExecutor;
+    private final Semaphore importPermit = new Semaphore(1);
+    private final Cache<String, UserImportJobResponse> jobs;
+    private final Duration jobRetention;
+    private final int batchSize;
+    private final long maxRows;
+    private final long maxUploadBytes;
+    private final Counter importedRows;
+    private final Counter failedRows;
+
+    public UserImportService(UserBulkRepository userBulkRepository,
+                             UserIdentityFilter userIdentityFilter,
+                             JsonMapper jsonMapper,
+                             Validator validator,
+                             RedisTemplate<String, Object> redisTemplate,
+                             ObjectProvider<RedisMessageListenerContainer> listenerContainer,
+                             MeterRegistry meterRegistry,
+                             @Value("${auth.import.hash-threads:0}") int hashThreads,
+                             @Value("${auth.import.batch-size:1000}") int batchSize,
+                             @Value("${auth.import.max-rows:200000}") long maxRows,
+                             @Value("${auth.import.max-upload-size:64MB}") DataSize maxUploadSize,
+                             @Value("${auth.import.job-retention:24h}") Duration jobRetention) {
+        this.userBulkRepository = userBulkRepository;
+        this.userIdentityFilter = userIdentityFilter;
+        this.jsonMapper = jsonMapper;
+        this.validator = validator;
+        this.redisTemplate = redisTemplate;
+        this.shared = listenerContainer.getIfAvailable() != null;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+        this.maxUploadBytes = maxUploadSize.toBytes();
+        this.jobRetention = jobRetention;
+        this.jobs = Caffeine.newBuilder().expireAfterWrite(jobRetention).build();
+        int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+        CustomizableThreadFactory hashThreadFactory = new CustomizableThreadFactory("user-import-hash-");
+        hashThreadFactory.setThreadPriority(Thread.MIN_PRIORITY);
+        this.hashingPool = Executors.newFixedThreadPool(threads, hashThreadFactory);
+        this.importExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("user-import-"));
+        this.importedRows = Counter.builder("auth.import.rows").tag("result", "imported").register(meterRegistry);
+        this.failedRows = Counter.builder("auth.import.rows").tag("result", "failed").register(meterRegistry);
+    }
+
+    /**
+     * Spools the upload and starts the import in the background.
+     *
+     * @return the running job; poll {@link #findJob} for progress and the final report
+     */
+    public UserImportJobResponse startImport(InputStream body, MediaType contentType) {
+        boolean csv;
+        if (TEXT_CSV.isCompatibleWith(contentType)) {
+            csv = true;
+        } else if (APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            csv = false;
+        } else {
+            throw new BusinessException("Unsupported import format: " + contentType);
+        }
+        if (!importPermit.tryAcquire()) {
+            throw new ServiceUnavailableException("Another user import is in progress", RETRY_AFTER_SECONDS);
+        }
+        Path upload = null;
+        boolean submitted = false;
+        try {
+            upload = spool(body);
+            UserImportJobResponse job = UserImportJobResponse.builder()
+                    .jobId(UUID.randomUUID().toString())
+                    .status(Status.RUNNING)
+                    .startedAt(Instant.now())
+                    .build();
+            publish(job);
+            Path file = upload;
+            importExecutor.execute(() -> runJob(job, file, csv));
+            submitted = true; // the job deletes the file and releases the permit
+            return job;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("The application is shutting down", RETRY_AFTER_SECONDS);
+        } finally {
+            if (!submitted) {
+                if (upload != null) {
+                    deleteUpload(upload);
+                }
+                importPermit.release();
+            }
+        }
+    }
+
+    public UserImportJobResponse findJob(String jobId) {
+        UserImportJobResponse job = jobs.getIfPresent(jobId);
+        if (job == null && shared) {
+            String value = (String) redisTemplate.opsForValue().get(JOB_KEY_PREFIX + jobId);
+            job = value != null ? jsonMapper.readValue(value, UserImportJobResponse.class) : null;
+        }
+        if (job == null) {
+            throw new BusinessException("Import job not found");
+        }
+        return job;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importExecutor.shutdownNow();
+        hashingPool.shutdownNow();
+    }
+
+    /** Copies the request body to an owner-only temporary file, so the request does not wait for the import. */
+    private Path spool(InputStream body) throws IOException {
+        Path upload = Files.createTempFile("user-import-", ".upload");
+        try (OutputStream out = Files.newOutputStream(upload)) {
+            byte[] buffer = new byte[64 * 1024];
+            long size = 0;
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                size += read;
+                if (size > maxUploadBytes) {
+                    throw new BusinessException("Import file exceeds " + DataSize.ofBytes(maxUploadBytes).toMegabytes() + " MB");
+                }
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteUpload(upload);
+            throw e;
+        }
+        return upload;
+    }
+
+    private void runJob(UserImportJobResponse job, Path upload, boolean csv) {
+        try (BufferedReader reader = Files.newBufferedReader(upload, StandardCharsets.UTF_8)) {
+            UserImportResponse report = doImport(reader, csv, progress -> publish(job.toBuilder().report(progress).build()));
+            publish(job.toBuilder().status(Status.COMPLETED).finishedAt(Instant.now()).report(report).build());
+        } catch (IOException | RuntimeException e) {
+            log.error("User import {} failed", job.getJobId(), e);
+            publish(job.toBuilder().status(Status.FAILED).finishedAt(Instant.now()).error(e.getMessage()).build());
+        } finally {
+            deleteUpload(upload);
+            importPermit.release();
+        }
+    }
+
+    private void publish(UserImportJobResponse job) {
+        jobs.put(job.getJobId(), job);
+        if (!shared) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(JOB_KEY_PREFIX + job.getJobId(), jsonMapper.writeValueAsString(job), jobRetention);
+        } catch (RuntimeException e) {
+            log.warn("Could not publish the status of user import {}", job.getJobId(), e);
+        }
+    }
+
+    private static void deleteUpload(Path upload) {
+        try {
+            Files.deleteIfExists(upload);
+        } catch (IOException e) {
+            log.warn("Could not delete import upload {}", upload, e);
+        }
+    }
+
+    private UserImportResponse doImport(BufferedReader reader, boolean csv, Consumer<UserImportResponse> progress) throws IOException {
+        long start = System.currentTimeMillis();
+        Report report = new Report();
+        RowParser parser = csv ? new CsvRowParser() : this::parseJson;
+        List<Row> batch = new ArrayList<>(batchSize);
+
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            Row row;
+            try {
+                row = parser.parse(line, lineNumber);
+            } catch (IllegalArgumentException e) {
+                report.total++;
+                report.fail(lineNumber, null, e.getMessage());
+                continue;
+            }
+            if (row == null) { // CSV header
+                continue;
+            }
+            if (report.total == maxRows) {
+                report.fail(lineNumber, null, "Row limit of " + maxRows + " reached; this and later rows were not imported");
+                break;
+            }
+            report.total++;
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                processBatch(batch, report);
+                batch.clear();
+                progress.accept(report.toResponse(start, null));
+            }
+        }
+        processBatch(batch, report);
+
+        importedRows.increment(report.imported);
+        failedRows.increment(report.errors.size());
+        log.info("User import finished: {} rows, {} imported, {} failed in {} ms",
+                report.total, report.imported, report.errors.size(), System.currentTimeMillis() - start);
+        return report.toResponse(start, report.errors);
+    }
+
+    private void processBatch(List<Row> batch, Report report) {
+        List<Row> candidates = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            String error = validate(row.request());
+            if (error == null && !report.seenUsernames.add(lowerCase(row.request().getUsername()))) {
+                error = "Duplicate username in file";
+            }
+            if (error == null && !report.seenEmails.add(lowerCase(row.request().getEmail()))) {
+                error = "Duplicate email in file";
+            }
+            if (error != null) {
+                report.fail(row.line(), row.request().getUsername(), error);
+            } else {
+                candidates.add(row);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        try {
+            Set<String> takenUsernames = userBulkRepository.findExistingUsernames(
+                    candidates.stream().map(r -> r.request().getUsername()).toList());
+            Set<String> takenEmails = userBulkRepository.findExistingEmails(
+                    candidates.stream().map(r -> r.request().getEmail()).toList());
+            candidates.removeIf(row -> {
+                if (takenUsernames.contains(lowerCase(row.request().getUsername()))) {
+                    report.fail(row.line(), row.request().getUsername(), "Username is already taken!");
+                    return true;
+                }
+                if (takenEmails.contains(lowerCase(row.request().getEmail()))) {
+                    report.fail(row.line(), row.request().getUsername(), "Email is already in use!");
+                    return true;
+                }
+                return false;
+            });
+
+            List<NewUser> users = hashAll(candidates);
+            Set<String> inserted = userBulkRepository.insertIgnoringConflicts(users);
+            users.stream()
+                    .filter(user -> inserted.contains(user.username()))
+                    .forEach(user -> userIdentityFilter.add(user.username(), user.email()));
+            for (Row row : candidates) {
+                if (inserted.contains(row.request().getUsername())) {
+                    report.imported++;
+                } else {
+                    report.fail(row.line(), row.request().getUsername(), "Username or email is already in use");
+                }
+            }
+        } catch (DataAccessException e) {
+            log.error("User import batch failed", e);
+            candidates.forEach(row -> report.fail(row.line(), row.request().getUsername(), "Database error, row not imported"));
+        }
+    }
+
+    private static String lowerCase(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private List<NewUser> hashAll(List<Row> rows) {
+        List<Callable<String>> tasks = new ArrayList<>(rows.size());
+        rows.forEach(row -> tasks.add(() -> passwordEncoder.encode(row.request().getPassword())));
+        try {
+            List<Future<String>> hashes = hashingPool.invokeAll(tasks);
+            List<NewUser> users = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                RegisterRequest request = rows.get(i).request();
+                users.add(new NewUser(request.getUsername(), request.getEmail(), hashes.get(i).get(), roleOf(request)));
+            }
+            return users;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("User import was interrupted");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private String validate(RegisterRequest request) {
+        Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        if (request.getRole() != null && !ROLES.contains(normalizeRole(request.getRole()))) {
+            return "Unknown role: " + request.getRole();
+        }
+        return null;
+    }
+
+    private static String roleOf(RegisterRequest request) {
+        return "ROLE_" + (request.getRole() != null ? normalizeRole(request.getRole()) : "STUDENT");
+    }
+
+    private static String normalizeRole(String role) {
+        String upper = role.trim().toUpperCase(Locale.ROOT);
+        return upper.startsWith("ROLE_") ? upper.substring(5) : upper;
+    }
+
+    private Row parseJson(String line, long lineNumber) {
+        try {
+            return new Row(lineNumber, jsonMapper.readValue(line, RegisterRequest.class));
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private record Row(long line, RegisterRequest request) {
+    }
+
+    @FunctionalInterface
+    private interface RowParser {
+        /**
+         * @return the row, or {@code null} for lines that carry no row (the CSV header)
+         */
+        Row parse(String line, long lineNumber);
+    }
+
+    /**
+     * RFC 4180 fields without embedded line breaks; the first line names the columns.
+     */
+    private static final class CsvRowParser implements RowParser {
+
+        private Map<String, Integer> columns;
+
+        @Override
+        public Row parse(String line, long lineNumber) {
+            List<String> fields = split(line);
+            if (columns == null) {
+                columns = new HashMap<>();
+                for (int i = 0; i < fields.size(); i++) {
+                    columns.put(fields.get(i).trim().toLowerCase(Locale.ROOT), i);
+                }
+                for (String required : List.of("username", "email", "password")) {
+                    if (!columns.containsKey(required)) {
+                        throw new BusinessException("CSV header must contain username, email and password columns");
+                    }
+                }
+                return null;
+            }
+            RegisterRequest request = new RegisterRequest();
+            request.setUsername(field(fields, "username"));
+            request.setEmail(field(fields, "email"));
+            request.setPassword(field(fields, "password"));
+            request.setRole(field(fields, "role"));
+            return new Row(lineNumber, request);
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private static List<String> split(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("Unterminated quoted field");
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    private static final class Report {
+        private final Set<String> seenUsernames = new HashSet<>();
+        private final Set<String> seenEmails = new HashSet<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private long total;
+        private long imported;
+
+        void fail(long line, String username, String message) {
+            errors.add(new RowError(line, username, message));
+        }
+
+        UserImportResponse toResponse(long start, List<RowError> errors) {
+            return UserImportResponse.builder()
+                    .total(total)
+                    .imported(imported)
+                    .failed(total - imported)
+                    .durationMillis(System.currentTimeMillis() - start)
+                    .errors(errors)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package vn.com.nws.cms.modules.auth.domain.model;
+
+/**
+ * Server-side state of a refresh token family, stored as {@code secret|role|issuedAt|username}.
+ * The username goes last so it may contain the separator.
+ */
+public record RefreshSession(String secret, String role, long issuedAt, String username) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        return secret + SEPARATOR + role + SEPARATOR + issuedAt + SEPARATOR + username;
+    }
+
+    public static RefreshSession decode(String value) {
+        int secretEnd = value.indexOf(SEPARATOR);
+        int roleEnd = value.indexOf(SEPARATOR, secretEnd + 1);
+        int issuedAtEnd = value.indexOf(SEPARATOR, roleEnd + 1);
+        return new RefreshSession(
+                value.substring(0, secretEnd),
+                value.substring(secretEnd + 1, roleEnd),
+                Long.parseLong(value.substring(roleEnd + 1, issuedAtEnd)),
+                value.substring(issuedAtEnd + 1));
+    }
+}
@@ -15,17 +15,19 @@ import vn.com.nws.cms.common.audit.AuditEntity;
 @AllArgsConstructor
 public class User extends AuditEntity {
 
+    // Schema (sequence, case-insensitive unique indexes) lives in db/migration/V1__init_schema.sql
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String username;
 
     @Column(nullable = false)
     private String password;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
 
     @Column(nullable = false)
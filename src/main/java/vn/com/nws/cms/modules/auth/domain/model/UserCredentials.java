@@ -0,0 +1,8 @@
+package vn.com.nws.cms.modules.auth.domain.model;
+
+/**
+ * The columns needed to authenticate a user; selecting only these lets the login lookup run as an
+ * index-only scan on {@code ux_users_username_credentials}.
+ */
+public record UserCredentials(String username, String password, String role) {
+}
@@ -0,0 +1,53 @@
+package vn.com.nws.cms.modules.auth.domain.repository;
+
+import vn.com.nws.cms.modules.auth.domain.model.RefreshSession;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Short-lived authentication state: refresh sessions keyed by token family, the per-user session index
+ * and password reset tokens. {@code auth.token-store.type} selects Redis ({@code redis}, shared by all
+ * nodes) or an off-heap in-process store ({@code local}, single node only).
+ */
+public interface TokenStore {
+
+    void saveRefreshSession(String family, RefreshSession session, Duration ttl);
+
+    /**
+     * Atomically swaps the secret of a refresh session and extends its TTL, provided
+     * {@code presentedSecret} is the current one; of two concurrent rotations only one succeeds.
+     *
+     * @return the rotated session, or empty if the family is unknown, expired or the secret is stale
+     */
+    Optional<RefreshSession> rotateRefreshSession(String family, String presentedSecret, String newSecret, Duration ttl);
+
+    /**
+     * Deletes a refresh session if {@code presentedSecret} is the current one.
+     */
+    void revokeRefreshSession(String family, String presentedSecret);
+
+    void deleteRefreshSession(String family);
+
+    /**
+     * Adds a family to the user's session index and deletes the oldest sessions beyond {@code maxSessions}.
+     */
+    void trackSession(String username, String family, long issuedAt, int maxSessions, Duration indexTtl);
+
+    /**
+     * Deletes every indexed refresh session of the user together with the index.
+     */
+    void deleteAllSessions(String username);
+
+    void saveResetToken(String token, String username, Duration ttl);
+
+    /**
+     * Returns the username of a reset token without consuming it.
+     */
+    Optional<String> findResetToken(String token);
+
+    /**
+     * Atomically removes a reset token and returns its username; at most one caller receives it.
+     */
+    Optional<String> consumeResetToken(String token);
+}
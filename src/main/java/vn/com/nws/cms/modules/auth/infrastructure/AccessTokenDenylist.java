@@ -0,0 +1,183 @@
+package vn.com.nws.cms.modules.auth.infrastructure;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import vn.com.nws.cms.common.security.TokenRevocationCheck;
+import vn.com.nws.cms.common.util.BloomFilter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node-local access-token denylist. Revoked token digests sit behind a Bloom filter so the common
+ * case (not revoked) is answered without touching the exact set; per-user cutoffs revoke every token
+ * issued before a "log out everywhere". Redis keeps the durable copy (two sorted sets scored by
+ * expiry/cutoff) and pub/sub replicates changes to every node; each purge also reloads the sorted sets,
+ * so a change published while a node's listener was disconnected reaches it within one purge interval.
+ * With the local token store the denylist is purely in-process.
+ */
+@Component
+@Slf4j
+public class AccessTokenDenylist implements TokenRevocationCheck, MessageListener {
+
+    public static final String CHANNEL = "auth:denylist";
+    private static final String TOKENS_KEY = "auth:denylist:tokens";
+    private static final String USERS_KEY = "auth:denylist:users";
+    private static final char SEPARATOR = '|';
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final boolean shared;
+    private final long expectedTokens;
+    private final double falsePositiveProbability;
+    private final Duration userCutoffRetention;
+
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>(); // digest -> exp (epoch second)
+    private final Map<String, Long> revokedUsers = new ConcurrentHashMap<>(); // username -> cutoff (epoch milli)
+    private volatile BloomFilter filter;
+
+    public AccessTokenDenylist(RedisTemplate<String, Object> redisTemplate,
+                               ObjectProvider<RedisMessageListenerContainer> listenerContainer,
+                               MeterRegistry meterRegistry,
+                               @Value("${auth.denylist.expected-tokens:100000}") long expectedTokens,
+                               @Value("${auth.denylist.false-positive-probability:0.001}") double falsePositiveProbability,
+                               @Value("${auth.sessions.index-ttl:30d}") Duration userCutoffRetention) {
+        this.redisTemplate = redisTemplate;
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.userCutoffRetention = userCutoffRetention;
+        this.filter = new BloomFilter(expectedTokens, falsePositiveProbability);
+        Gauge.builder("auth.denylist.tokens", revokedTokens, Map::size).register(meterRegistry);
+        Gauge.builder("auth.denylist.users", revokedUsers, Map::size).register(meterRegistry);
+        RedisMessageListenerContainer container = listenerContainer.getIfAvailable();
+        this.shared = container != null;
+        if (shared) {
+            container.addMessageListener(this, new ChannelTopic(CHANNEL));
+            load();
+        }
+    }
+
+    @Override
+    public boolean isRevoked(String tokenDigest, Jwt jwt) {
+        // iat has whole-second precision, so a token from the cutoff's own second counts as issued before it;
+        // the client's refresh, checked to the millisecond, replaces it
+        if (!revokedUsers.isEmpty() && jwt.getIssuedAt() != null
+                && isRevokedSince(jwt.getSubject(), jwt.getIssuedAt().toEpochMilli())) {
+            return true;
+        }
+        return filter.mightContain(tokenDigest) && revokedTokens.containsKey(tokenDigest);
+    }
+
+    /**
+     * Whether a token or session the user obtained at {@code issuedAtMillis} has been revoked, i.e. was
+     * issued strictly before the user's cutoff.
+     */
+    public boolean isRevokedSince(String username, long issuedAtMillis) {
+        Long cutoff = revokedUsers.get(username);
+        return cutoff != null && issuedAtMillis < cutoff;
+    }
+
+    public void revoke(String tokenDigest, Instant expiresAt) {
+        long exp = expiresAt.getEpochSecond();
+        applyToken(tokenDigest, exp);
+        if (!shared) {
+            return;
+        }
+        redisTemplate.opsForZSet().add(TOKENS_KEY, tokenDigest, exp);
+        redisTemplate.convertAndSend(CHANNEL, "T" + SEPARATOR + exp + SEPARATOR + tokenDigest);
+    }
+
+    public void revokeAllBefore(String username, Instant cutoff) {
+        long epochMilli = cutoff.toEpochMilli();
+        applyUser(username, epochMilli);
+        if (!shared) {
+            return;
+        }
+        redisTemplate.opsForZSet().add(USERS_KEY, username, epochMilli);
+        redisTemplate.convertAndSend(CHANNEL, "U" + SEPARATOR + epochMilli + SEPARATOR + username);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(SEPARATOR, 2);
+        long value = Long.parseLong(body.substring(2, separator));
+        String subject = body.substring(separator + 1);
+        if (body.charAt(0) == 'T') {
+            applyToken(subject, value);
+        } else {
+            applyUser(subject, value);
+        }
+    }
+
+    /**
+     * Drops expired entries locally and in Redis, reloads from Redis whatever this node missed, then
+     * rebuilds the Bloom filter from what is left.
+     */
+    @Scheduled(fixedDelayString = "${auth.denylist.purge-interval:60s}")
+    public void purge() {
+        Instant instant = Instant.now();
+        long now = instant.getEpochSecond();
+        long userFloor = instant.toEpochMilli() - userCutoffRetention.toMillis();
+        if (shared) {
+            try {
+                redisTemplate.opsForZSet().removeRangeByScore(TOKENS_KEY, Double.NEGATIVE_INFINITY, now - 1);
+                redisTemplate.opsForZSet().removeRangeByScore(USERS_KEY, Double.NEGATIVE_INFINITY, userFloor - 1);
+            } catch (RuntimeException e) {
+                log.warn("Could not purge expired denylist entries from Redis", e);
+            }
+            // Pub/sub does not redeliver what was published while the listener was reconnecting
+            load();
+        }
+        revokedUsers.values().removeIf(cutoff -> cutoff < userFloor);
+        synchronized (this) {
+            revokedTokens.values().removeIf(exp -> exp < now);
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, revokedTokens.size() * 2L), falsePositiveProbability);
+            revokedTokens.keySet().forEach(rebuilt::put);
+            filter = rebuilt;
+        }
+    }
+
+    private void load() {
+        Instant instant = Instant.now();
+        long now = instant.getEpochSecond();
+        try {
+            Set<TypedTuple<Object>> tokens = redisTemplate.opsForZSet()
+                    .rangeByScoreWithScores(TOKENS_KEY, now, Double.POSITIVE_INFINITY);
+            if (tokens != null) {
+                tokens.forEach(t -> applyToken((String) t.getValue(), t.getScore().longValue()));
+            }
+            Set<TypedTuple<Object>> users = redisTemplate.opsForZSet()
+                    .rangeByScoreWithScores(USERS_KEY, instant.toEpochMilli() - userCutoffRetention.toMillis(), Double.POSITIVE_INFINITY);
+            if (users != null) {
+                users.forEach(t -> applyUser((String) t.getValue(), t.getScore().longValue()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not load the access-token denylist from Redis", e);
+        }
+    }
+
+    private synchronized void applyToken(String tokenDigest, long exp) {
+        revokedTokens.put(tokenDigest, exp);
+        filter.put(tokenDigest);
+    }
+
+    private void applyUser(String username, long cutoff) {
+        revokedUsers.merge(username, cutoff, Math::max);
+    }
+}
@@ -5,24 +5,33 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import vn.com.nws.cms.modules.auth.domain.model.User;
+import vn.com.nws.cms.common.datasource.ReplicaRoutingDataSource;
+import vn.com.nws.cms.modules.auth.domain.model.UserCredentials;
 import vn.com.nws.cms.modules.auth.domain.repository.UserRepository;
+import vn.com.nws.cms.modules.auth.infrastructure.UserDetailsCache.CachedUser;
 
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        CachedUser user = userDetailsCache.get(username, this::loadFromDatabase);
 
         return org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPassword())
-                .roles(user.getRole().replace("ROLE_", ""))
+                .withUsername(user.username())
+                .password(user.password())
+                .roles(user.role().replace("ROLE_", ""))
                 .build();
     }
+
+    private CachedUser loadFromDatabase(String username) {
+        // The hash is cached until evicted, so it must not come from a replica that has not yet seen a reset
+        UserCredentials user = ReplicaRoutingDataSource.onPrimary(() -> userRepository.findCredentialsByUsername(username))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        return new CachedUser(user.username(), user.password(), user.role());
+    }
 }
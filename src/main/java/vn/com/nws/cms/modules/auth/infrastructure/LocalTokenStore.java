@@ -0,0 +1,153 @@
+package vn.com.nws.cms.modules.auth.infrastructure;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import vn.com.nws.cms.common.util.OffHeapStringMap;
+import vn.com.nws.cms.modules.auth.domain.model.RefreshSession;
+import vn.com.nws.cms.modules.auth.domain.repository.TokenStore;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * In-process {@link TokenStore} for single-node installations and tests. Entries live off-heap in an
+ * {@link OffHeapStringMap}, so a large number of refresh sessions adds no GC pressure; everything is lost
+ * on restart, which only forces users to log in again.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.token-store.type", havingValue = "local")
+@Slf4j
+public class LocalTokenStore implements TokenStore {
+
+    private static final String REFRESH_TOKEN_PREFIX = "rt:";
+    private static final String SESSION_INDEX_PREFIX = "sessions:";
+    private static final String RESET_TOKEN_PREFIX = "reset:";
+    private static final char SESSION_SEPARATOR = ',';
+    private static final char ISSUED_AT_SEPARATOR = ':';
+
+    private final OffHeapStringMap entries;
+
+    public LocalTokenStore(MeterRegistry meterRegistry,
+                           @Value("${auth.token-store.local.max-memory:256MB}") DataSize maxMemory) {
+        this.entries = new OffHeapStringMap(Runtime.getRuntime().availableProcessors() * 4, maxMemory.toBytes());
+        Gauge.builder("auth.token-store.entries", entries, OffHeapStringMap::size).register(meterRegistry);
+        Gauge.builder("auth.token-store.reserved", entries, OffHeapStringMap::reservedBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void saveRefreshSession(String family, RefreshSession session, Duration ttl) {
+        entries.put(REFRESH_TOKEN_PREFIX + family, session.encode(), ttl.toMillis());
+    }
+
+    @Override
+    public Optional<RefreshSession> rotateRefreshSession(String family, String presentedSecret, String newSecret, Duration ttl) {
+        RefreshSession[] rotated = new RefreshSession[1];
+        entries.compute(REFRESH_TOKEN_PREFIX + family, ttl.toMillis(), current -> {
+            if (current == null) {
+                return null;
+            }
+            RefreshSession session = RefreshSession.decode(current);
+            if (!session.secret().equals(presentedSecret)) {
+                return current;
+            }
+            rotated[0] = new RefreshSession(newSecret, session.role(), session.issuedAt(), session.username());
+            return rotated[0].encode();
+        });
+        return Optional.ofNullable(rotated[0]);
+    }
+
+    @Override
+    public void revokeRefreshSession(String family, String presentedSecret) {
+        entries.compute(REFRESH_TOKEN_PREFIX + family, 0, current ->
+                current != null && RefreshSession.decode(current).secret().equals(presentedSecret) ? null : current);
+    }
+
+    @Override
+    public void deleteRefreshSession(String family) {
+        entries.remove(REFRESH_TOKEN_PREFIX + family);
+    }
+
+    @Override
+    public void trackSession(String username, String family, long issuedAt, int maxSessions, Duration indexTtl) {
+        List<String> evicted = new ArrayList<>();
+        entries.compute(SESSION_INDEX_PREFIX + username, indexTtl.toMillis(), current -> {
+            List<String> sessions = parseSessions(current);
+            sessions.add(String.valueOf(issuedAt) + ISSUED_AT_SEPARATOR + family);
+            sessions.sort(Comparator.comparingLong(LocalTokenStore::issuedAtOf));
+            while (sessions.size() > maxSessions) {
+                evicted.add(familyOf(sessions.remove(0)));
+            }
+            return String.join(String.valueOf(SESSION_SEPARATOR), sessions);
+        });
+        evicted.forEach(this::deleteRefreshSession);
+    }
+
+    @Override
+    public void deleteAllSessions(String username) {
+        String[] index = new String[1];
+        entries.compute(SESSION_INDEX_PREFIX + username, 0, current -> {
+            index[0] = current;
+            return null;
+        });
+        parseSessions(index[0]).forEach(session -> deleteRefreshSession(familyOf(session)));
+    }
+
+    @Override
+    public void saveResetToken(String token, String username, Duration ttl) {
+        entries.put(RESET_TOKEN_PREFIX + token, username, ttl.toMillis());
+    }
+
+    @Override
+    public Optional<String> findResetToken(String token) {
+        return Optional.ofNullable(entries.get(RESET_TOKEN_PREFIX + token));
+    }
+
+    @Override
+    public Optional<String> consumeResetToken(String token) {
+        String[] consumed = new String[1];
+        entries.compute(RESET_TOKEN_PREFIX + token, 0, current -> {
+            consumed[0] = current;
+            return null;
+        });
+        return Optional.ofNullable(consumed[0]);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.token-store.local.purge-interval:60s}")
+    public void purgeExpired() {
+        int removed = entries.purgeExpired();
+        if (removed > 0) {
+            log.debug("Purged {} expired token store entries", removed);
+        }
+    }
+
+    private static List<String> parseSessions(String index) {
+        List<String> sessions = new ArrayList<>();
+        if (index != null && !index.isEmpty()) {
+            int start = 0;
+            for (int end; (end = index.indexOf(SESSION_SEPARATOR, start)) >= 0; start = end + 1) {
+                sessions.add(index.substring(start, end));
+            }
+            sessions.add(index.substring(start));
+        }
+        return sessions;
+    }
+
+    private static long issuedAtOf(String session) {
+        return Long.parseLong(session.substring(0, session.indexOf(ISSUED_AT_SEPARATOR)));
+    }
+
+    private static String familyOf(String session) {
+        return session.substring(session.indexOf(ISSUED_AT_SEPARATOR) + 1);
+    }
+}
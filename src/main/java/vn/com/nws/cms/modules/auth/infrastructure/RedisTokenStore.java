@@ -0,0 +1,96 @@
+package vn.com.nws.cms.modules.auth.infrastructure;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import vn.com.nws.cms.modules.auth.domain.model.RefreshSession;
+import vn.com.nws.cms.modules.auth.domain.repository.TokenStore;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Redis-backed {@link TokenStore}. One key per refresh token family ({@code auth:rt:{family}}), a sorted
+ * set per user ({@code auth:sessions:{username}}) and {@code auth:reset:{token}}; the multi-step updates
+ * run as Lua scripts so each is a single round trip.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.token-store.type", havingValue = "redis", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RedisTokenStore implements TokenStore {
+
+    private static final String REFRESH_TOKEN_PREFIX = "auth:rt:";
+    private static final String SESSION_INDEX_PREFIX = "auth:sessions:";
+    private static final String RESET_TOKEN_PREFIX = "auth:reset:";
+    private static final RedisScript<String> ROTATE_REFRESH_TOKEN =
+            RedisScript.of(new ClassPathResource("scripts/rotate-refresh-token.lua"), String.class);
+    private static final RedisScript<Long> REVOKE_REFRESH_TOKEN =
+            RedisScript.of(new ClassPathResource("scripts/revoke-refresh-token.lua"), Long.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TRACK_SESSION =
+            RedisScript.of(new ClassPathResource("scripts/track-session.lua"), List.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    @Override
+    public void saveRefreshSession(String family, RefreshSession session, Duration ttl) {
+        redisTemplate.opsForValue().set(REFRESH_TOKEN_PREFIX + family, session.encode(), ttl);
+    }
+
+    @Override
+    public Optional<RefreshSession> rotateRefreshSession(String family, String presentedSecret, String newSecret, Duration ttl) {
+        String rotated = redisTemplate.execute(ROTATE_REFRESH_TOKEN, List.of(REFRESH_TOKEN_PREFIX + family),
+                presentedSecret, newSecret, String.valueOf(ttl.toMillis()));
+        return Optional.ofNullable(rotated).map(RefreshSession::decode);
+    }
+
+    @Override
+    public void revokeRefreshSession(String family, String presentedSecret) {
+        redisTemplate.execute(REVOKE_REFRESH_TOKEN, List.of(REFRESH_TOKEN_PREFIX + family), presentedSecret);
+    }
+
+    @Override
+    public void deleteRefreshSession(String family) {
+        redisTemplate.delete(REFRESH_TOKEN_PREFIX + family);
+    }
+
+    @Override
+    public void trackSession(String username, String family, long issuedAt, int maxSessions, Duration indexTtl) {
+        List<?> evicted = redisTemplate.execute(TRACK_SESSION, List.of(SESSION_INDEX_PREFIX + username), family,
+                String.valueOf(issuedAt), String.valueOf(indexTtl.toMillis()), String.valueOf(maxSessions));
+        if (evicted != null && !evicted.isEmpty()) {
+            redisTemplate.delete(evicted.stream().map(f -> REFRESH_TOKEN_PREFIX + f).toList());
+        }
+    }
+
+    @Override
+    public void deleteAllSessions(String username) {
+        String indexKey = SESSION_INDEX_PREFIX + username;
+        Set<Object> families = redisTemplate.opsForZSet().range(indexKey, 0, -1);
+        if (families != null && !families.isEmpty()) {
+            redisTemplate.delete(families.stream().map(f -> REFRESH_TOKEN_PREFIX + f).toList());
+        }
+        redisTemplate.delete(indexKey);
+    }
+
+    @Override
+    public void saveResetToken(String token, String username, Duration ttl) {
+        redisTemplate.opsForValue().set(RESET_TOKEN_PREFIX + token, username, ttl);
+    }
+
+    @Override
+    public Optional<String> findResetToken(String token) {
+        return Optional.ofNullable((String) redisTemplate.opsForValue().get(RESET_TOKEN_PREFIX + token));
+    }
+
+    @Override
+    public Optional<String> consumeResetToken(String token) {
+        // GETDEL on the primary: of two concurrent resets only one receives the username
+        return Optional.ofNullable((String) redisTemplate.opsForValue().getAndDelete(RESET_TOKEN_PREFIX + token));
+    }
+}
@@ -0,0 +1,120 @@
+package vn.com.nws.cms.modules.auth.infrastructure;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Set-based JDBC access to {@code users} for bulk operations; each method is a single statement
+ * regardless of how many users it covers.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserBulkRepository {
+
+    private static final String INSERT_USERS = """
+            INSERT INTO users (username, email, password, role, created_at, updated_at)
+            SELECT u.username, u.email, u.password, u.role, ?, ?
+            FROM unnest(?::text[], ?::text[], ?::text[], ?::text[]) AS u(username, email, password, role)
+            ON CONFLICT DO NOTHING
+            RETURNING username
+            """;
+
+    private static final String SELECT_USERS_AFTER = """
+            SELECT id, username, email, role, created_at
+            FROM users
+            WHERE id > ?
+            ORDER BY id
+            """;
+    private static final int EXPORT_FETCH_SIZE = 5_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return the lower-cased usernames that are already taken, ignoring case like the unique index
+     */
+    public Set<String> findExistingUsernames(Collection<String> usernames) {
+        return findExisting("SELECT lower(username) FROM users WHERE lower(username) = ANY(?)", usernames);
+    }
+
+    /**
+     * @return the lower-cased emails that are already taken, ignoring case like the unique index
+     */
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return findExisting("SELECT lower(email) FROM users WHERE lower(email) = ANY(?)", emails);
+    }
+
+    /**
+     * Inserts all users in one statement. Rows that hit a unique constraint (e.g. a concurrent
+     * registration) are skipped rather than failing the batch.
+     *
+     * @return the usernames that were actually inserted
+     */
+    public Set<String> insertIgnoringConflicts(List<NewUser> users) {
+        if (users.isEmpty()) {
+            return Set.of();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return new HashSet<>(jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_USERS);
+            ps.setTimestamp(1, now);
+            ps.setTimestamp(2, now);
+            ps.setArray(3, textArray(connection, users.stream().map(NewUser::username).toList()));
+            ps.setArray(4, textArray(connection, users.stream().map(NewUser::email).toList()));
+            ps.setArray(5, textArray(connection, users.stream().map(NewUser::passwordHash).toList()));
+            ps.setArray(6, textArray(connection, users.stream().map(NewUser::role).toList()));
+            return ps;
+        }, (rs, rowNum) -> rs.getString(1)));
+    }
+
+    /**
+     * Streams users with {@code id > afterId} in id order through a server-side cursor, holding at most
+     * one fetch of rows in memory. Must run inside a transaction, otherwise the driver buffers the whole result.
+     */
+    public void forEachUserAfter(long afterId, Consumer<ExportedUser> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_USERS_AFTER);
+            ps.setFetchSize(EXPORT_FETCH_SIZE);
+            ps.setLong(1, afterId);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            Timestamp createdAt = rs.getTimestamp(5);
+            consumer.accept(new ExportedUser(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                    createdAt != null ? createdAt.toLocalDateTime() : null));
+        });
+    }
+
+    private Set<String> findExisting(String sql, Collection<String> values) {
+        if (values.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setArray(1, textArray(connection, values.stream().map(v -> v.toLowerCase(Locale.ROOT)).toList()));
+            return ps;
+        }, (rs, rowNum) -> rs.getString(1)));
+    }
+
+    private static java.sql.Array textArray(Connection connection, Collection<String> values) throws SQLException {
+        return connection.createArrayOf("text", values.toArray());
+    }
+
+    public record NewUser(String username, String email, String passwordHash, String role) {
+    }
+
+    public record ExportedUser(long id, String username, String email, String role, LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,111 @@
+package vn.com.nws.cms.modules.auth.infrastructure;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of login principals. Evictions are broadcast over Redis pub/sub so every node
+ * drops its copy; with the local token store there is no listener container and eviction stays local.
+ * The entries hold BCrypt hashes, so they are deliberately never written to Redis, where anyone with read
+ * access could copy them for an offline attack.
+ */
+@Component
+@Slf4j
+public class UserDetailsCache implements MessageListener {
+
+    public static final String EVICT_CHANNEL = "auth:user:evict";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final boolean shared;
+    private final Cache<String, CachedUser> localCache;
+    private final Counter evictions;
+
+    public UserDetailsCache(RedisTemplate<String, Object> redisTemplate,
+                            ObjectProvider<RedisMessageListenerContainer> listenerContainer,
+                            MeterRegistry meterRegistry,
+                            @Value("${auth.user-cache.local.max-size:10000}") long localMaxSize,
+                            @Value("${auth.user-cache.local.ttl:5m}") Duration localTtl) {
+        this.redisTemplate = redisTemplate;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "auth.users.local");
+        this.evictions = Counter.builder("auth.users.evictions").register(meterRegistry);
+        RedisMessageListenerContainer container = listenerContainer.getIfAvailable();
+        this.shared = container != null;
+        if (shared) {
+            container.addMessageListener(this, new ChannelTopic(EVICT_CHANNEL));
+        }
+    }
+
+    /**
+     * Returns the cached principal, falling back to {@code loader}.
+     * Concurrent misses for the same username are coalesced into a single load.
+     */
+    public CachedUser get(String username, Function<String, CachedUser> loader) {
+        return localCache.get(username, loader);
+    }
+
+    /**
+     * Drops the principal from the cache of every node.
+     * Must be called whenever the password or role of a user changes; inside a transaction
+     * the eviction is deferred until commit so a concurrent login cannot re-cache stale data.
+     */
+    public void evict(String username) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvict(username);
+                }
+            });
+        } else {
+            doEvict(username);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        localCache.invalidate(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private void doEvict(String username) {
+        evictions.increment();
+        localCache.invalidate(username);
+        if (!shared) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(EVICT_CHANNEL, username);
+        } catch (RuntimeException e) {
+            log.warn("Could not propagate user cache eviction for {}", username, e);
+        }
+    }
+
+    /**
+     * Immutable snapshot of the fields needed to authenticate. A fresh {@code UserDetails} is built
+     * from it on every load because the authentication manager erases credentials in place.
+     */
+    public record CachedUser(String username, String password, String role) {
+    }
+}
@@ -0,0 +1,149 @@
+package vn.com.nws.cms.modules.auth.infrastructure;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.com.nws.cms.common.util.BloomFilter;
+
+import javax.sql.DataSource;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bloom filters over existing usernames and emails (lower-cased). A negative answer is definitive, so
+ * availability checks and registration skip Postgres for names nobody has; a positive answer may be
+ * false and is confirmed against the database, with the unique constraints as the final guard.
+ * Built from a streaming scan of {@code users} once the application is ready and rebuilt periodically
+ * to shed deleted or renamed users; until the first build completes every lookup answers "maybe".
+ */
+@Component
+@Slf4j
+public class UserIdentityFilter {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long expectedUsers;
+    private final double falsePositiveProbability;
+    private final Timer buildTimer;
+    private final Counter negativeLookups;
+    private final Counter positiveLookups;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile Filters filters;
+    private volatile Filters next; // receives additions while a rebuild is scanning the table
+
+    public UserIdentityFilter(DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${auth.identity-filter.expected-users:100000}") long expectedUsers,
+                              @Value("${auth.identity-filter.false-positive-probability:0.01}") double falsePositiveProbability) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.buildTimer = Timer.builder("auth.identity-filter.build").register(meterRegistry);
+        this.negativeLookups = Counter.builder("auth.identity-filter.lookups").tag("result", "negative").register(meterRegistry);
+        this.positiveLookups = Counter.builder("auth.identity-filter.lookups").tag("result", "maybe").register(meterRegistry);
+        Gauge.builder("auth.identity-filter.fpp", this, f -> f.expectedFpp(true)).tag("filter", "username").register(meterRegistry);
+        Gauge.builder("auth.identity-filter.fpp", this, f -> f.expectedFpp(false)).tag("filter", "email").register(meterRegistry);
+    }
+
+    public boolean mightContainUsername(String username) {
+        Filters current = filters;
+        return record(current == null || current.usernames.mightContain(normalize(username)));
+    }
+
+    public boolean mightContainEmail(String email) {
+        Filters current = filters;
+        return record(current == null || current.emails.mightContain(normalize(email)));
+    }
+
+    /**
+     * Records a new user. Safe to call before the insert commits: a stray entry only costs a database check.
+     */
+    public void add(String username, String email) {
+        Filters pending = next; // read before filters
+        Filters current = filters;
+        if (current != null) {
+            current.put(username, email);
+        }
+        if (pending != null) {
+            pending.put(username, email);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${auth.identity-filter.rebuild-interval:6h}",
+            fixedDelayString = "${auth.identity-filter.rebuild-interval:6h}")
+    public void rebuild() {
+        // Not synchronized, see VIRTUAL_THREADS.md 2.1
+        if (!rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            buildTimer.record(() -> {
+                Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM users", Long.class);
+                long expected = Math.max(expectedUsers, (count != null ? count : 0) * 2);
+                Filters building = new Filters(new BloomFilter(expected, falsePositiveProbability),
+                        new BloomFilter(expected, falsePositiveProbability));
+                next = building;
+                readOnlyTransaction.executeWithoutResult(status ->
+                        jdbcTemplate.query("SELECT username, email FROM users",
+                                (RowCallbackHandler) rs -> building.put(rs.getString(1), rs.getString(2))));
+                // Publish, then clear next (VIRTUAL_THREADS.md 2.2)
+                filters = building;
+                next = null;
+                log.info("Built user identity filter over {} users", count);
+            });
+        } catch (RuntimeException e) {
+            next = null;
+            log.warn("Could not build the user identity filter; lookups fall back to the database", e);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private boolean record(boolean maybe) {
+        (maybe ? positiveLookups : negativeLookups).increment();
+        return maybe;
+    }
+
+    private double expectedFpp(boolean usernames) {
+        Filters current = filters;
+        if (current == null) {
+            return 1.0;
+        }
+        return (usernames ? current.usernames : current.emails).expectedFpp();
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private record Filters(BloomFilter usernames, BloomFilter emails) {
+
+        void put(String username, String email) {
+            usernames.put(normalize(username));
+            emails.put(normalize(email));
+        }
+    }
+}
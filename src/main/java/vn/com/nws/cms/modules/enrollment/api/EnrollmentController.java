@@ -0,0 +1,49 @@
+package vn.com.nws.cms.modules.enrollment.api;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+import vn.com.nws.cms.common.dto.ApiResponse;
+import vn.com.nws.cms.modules.enrollment.api.dto.EnrollmentResponse;
+import vn.com.nws.cms.modules.enrollment.api.dto.TimetableCheckRequest;
+import vn.com.nws.cms.modules.enrollment.api.dto.TimetableCheckResponse;
+import vn.com.nws.cms.modules.enrollment.application.EnrollmentService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/enrollments")
+@RequiredArgsConstructor
+public class EnrollmentController {
+
+    private final EnrollmentService enrollmentService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<EnrollmentResponse>>> listEnrollments(@AuthenticationPrincipal Jwt jwt) {
+        return ResponseEntity.ok(ApiResponse.success(enrollmentService.listEnrollments(jwt.getSubject())));
+    }
+
+    @PostMapping("/{sectionId}")
+    public ResponseEntity<ApiResponse<EnrollmentResponse>> enroll(@AuthenticationPrincipal Jwt jwt, @PathVariable long sectionId) {
+        EnrollmentResponse enrollment = enrollmentService.enroll(jwt.getSubject(), sectionId);
+        return ResponseEntity.ok(ApiResponse.success("Seat reserved", enrollment));
+    }
+
+    @DeleteMapping("/{sectionId}")
+    public ResponseEntity<ApiResponse<Void>> drop(@AuthenticationPrincipal Jwt jwt, @PathVariable long sectionId) {
+        enrollmentService.drop(jwt.getSubject(), sectionId);
+        return ResponseEntity.ok(ApiResponse.success("Enrollment dropped", null));
+    }
+
+    /**
+     * Checks a proposed set of sections for schedule clashes without reserving anything.
+     */
+    @PostMapping("/timetable-check")
+    public ResponseEntity<ApiResponse<TimetableCheckResponse>> checkTimetable(@AuthenticationPrincipal Jwt jwt,
+                                                                              @Valid @RequestBody TimetableCheckRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(enrollmentService.checkTimetable(jwt.getSubject(), request.getSectionIds())));
+    }
+}
@@ -0,0 +1,23 @@
+package vn.com.nws.cms.modules.enrollment.api;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import vn.com.nws.cms.common.dto.ApiResponse;
+import vn.com.nws.cms.modules.enrollment.api.dto.SectionRequest;
+import vn.com.nws.cms.modules.enrollment.api.dto.SectionResponse;
+import vn.com.nws.cms.modules.enrollment.application.EnrollmentService;
+
+@RestController
+@RequestMapping("/api/admin/sections")
+@RequiredArgsConstructor
+public class SectionAdminController {
+
+    private final EnrollmentService enrollmentService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<SectionResponse>> createSection(@Valid @RequestBody SectionRequest request) {
+        return ResponseEntity.ok(ApiResponse.success("Section created", enrollmentService.createSection(request)));
+    }
+}
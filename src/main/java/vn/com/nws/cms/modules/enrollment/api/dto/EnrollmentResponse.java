@@ -0,0 +1,21 @@
+package vn.com.nws.cms.modules.enrollment.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EnrollmentResponse {
+    private Long sectionId;
+    private String courseCode;
+    private String sectionCode;
+    private String semester;
+    private String status; // RESERVED, ALREADY_ENROLLED or ENROLLED (confirmed)
+    private Instant enrolledAt; // null until confirmed
+}
@@ -0,0 +1,28 @@
+package vn.com.nws.cms.modules.enrollment.api.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MeetingRequest {
+    @NotNull(message = "Day of week is required")
+    @Min(value = 1, message = "Day of week must be between 1 (Monday) and 7 (Sunday)")
+    @Max(value = 7, message = "Day of week must be between 1 (Monday) and 7 (Sunday)")
+    private Integer dayOfWeek;
+
+    @NotNull(message = "First period is required")
+    @Min(value = 1, message = "Periods must be between 1 and 16")
+    @Max(value = 16, message = "Periods must be between 1 and 16")
+    private Integer firstPeriod;
+
+    @NotNull(message = "Last period is required")
+    @Min(value = 1, message = "Periods must be between 1 and 16")
+    @Max(value = 16, message = "Periods must be between 1 and 16")
+    private Integer lastPeriod;
+}
@@ -0,0 +1,45 @@
+package vn.com.nws.cms.modules.enrollment.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class SectionRequest {
+    @NotBlank(message = "Course code is required")
+    @Size(max = 32, message = "Course code must be at most 32 characters")
+    private String courseCode;
+
+    @NotBlank(message = "Section code is required")
+    @Size(max = 16, message = "Section code must be at most 16 characters")
+    private String sectionCode;
+
+    @NotBlank(message = "Semester is required")
+    @Size(max = 16, message = "Semester must be at most 16 characters")
+    private String semester;
+
+    @NotNull(message = "Capacity is required")
+    @Min(value = 0, message = "Capacity must not be negative")
+    private Integer capacity;
+
+    @NotNull(message = "Credits are required")
+    @Min(value = 1, message = "Credits must be between 1 and 10")
+    @Max(value = 10, message = "Credits must be between 1 and 10")
+    private Integer credits;
+
+    @NotNull(message = "Registration opening time is required")
+    private Instant registrationOpensAt;
+
+    @NotNull(message = "Registration closing time is required")
+    private Instant registrationClosesAt;
+
+    @Valid
+    private List<MeetingRequest> meetings; // Optional: weekly meetings for the schedule clash check
+}
@@ -0,0 +1,25 @@
+package vn.com.nws.cms.modules.enrollment.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SectionResponse {
+    private Long id;
+    private String courseCode;
+    private String sectionCode;
+    private String semester;
+    private Integer capacity;
+    private Integer credits;
+    private Instant registrationOpensAt;
+    private Instant registrationClosesAt;
+    private List<MeetingRequest> meetings;
+}
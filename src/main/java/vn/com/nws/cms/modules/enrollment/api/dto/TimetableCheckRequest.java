@@ -0,0 +1,14 @@
+package vn.com.nws.cms.modules.enrollment.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TimetableCheckRequest {
+    @NotEmpty(message = "Section ids are required")
+    @Size(max = 50, message = "At most 50 sections can be checked at once")
+    private List<Long> sectionIds;
+}
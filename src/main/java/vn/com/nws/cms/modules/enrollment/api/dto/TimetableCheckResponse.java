@@ -0,0 +1,18 @@
+package vn.com.nws.cms.modules.enrollment.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import vn.com.nws.cms.modules.enrollment.domain.model.ScheduleClash;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TimetableCheckResponse {
+    private boolean valid;
+    private List<ScheduleClash> clashes;
+}
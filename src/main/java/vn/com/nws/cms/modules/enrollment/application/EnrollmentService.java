@@ -0,0 +1,277 @@
+package vn.com.nws.cms.modules.enrollment.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import vn.com.nws.cms.common.exception.BusinessException;
+import vn.com.nws.cms.modules.enrollment.api.dto.EnrollmentResponse;
+import vn.com.nws.cms.modules.enrollment.api.dto.SectionRequest;
+import vn.com.nws.cms.modules.enrollment.api.dto.SectionResponse;
+import vn.com.nws.cms.modules.enrollment.api.dto.TimetableCheckResponse;
+import vn.com.nws.cms.modules.enrollment.domain.model.CourseSection;
+import vn.com.nws.cms.modules.enrollment.domain.model.ScheduleClash;
+import vn.com.nws.cms.modules.enrollment.domain.model.SeatReservation;
+import vn.com.nws.cms.modules.enrollment.domain.model.SectionMeeting;
+import vn.com.nws.cms.modules.enrollment.domain.model.TimetableChange;
+import vn.com.nws.cms.modules.enrollment.domain.repository.CourseSectionRepository;
+import vn.com.nws.cms.modules.enrollment.domain.repository.SeatInventory;
+import vn.com.nws.cms.modules.enrollment.infrastructure.EnrollmentRepository;
+import vn.com.nws.cms.modules.enrollment.infrastructure.ScheduleIndex;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Course registration (FUNCTIONAL_SPEC §3.1). The registration window is checked against a short-lived
+ * local copy of the section and the schedule clash against the in-memory {@link ScheduleIndex}; the
+ * capacity check and the seat itself are a single atomic operation on the shared {@link SeatInventory},
+ * so concurrent students never contend on a database row. The database is updated asynchronously by
+ * {@link SeatConfirmer}.
+ */
+@Service
+@Slf4j
+public class EnrollmentService {
+
+    private final CourseSectionRepository sectionRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final SeatInventory seatInventory;
+    private final SeatConfirmer seatConfirmer;
+    private final ScheduleIndex scheduleIndex;
+    private final Duration inventoryRetention;
+    private final Duration preloadAhead;
+    private final Cache<Long, CourseSection> sections;
+    private final ConcurrentMap<Long, CompletableFuture<Void>> loading = new ConcurrentHashMap<>();
+    private final Map<SeatReservation, Counter> reservations = new EnumMap<>(SeatReservation.class);
+
+    public EnrollmentService(CourseSectionRepository sectionRepository,
+                             EnrollmentRepository enrollmentRepository,
+                             SeatInventory seatInventory,
+                             SeatConfirmer seatConfirmer,
+                             ScheduleIndex scheduleIndex,
+                             MeterRegistry meterRegistry,
+                             @Value("${enrollment.section-cache-ttl:1m}") Duration sectionCacheTtl,
+                             @Value("${enrollment.inventory-retention:1d}") Duration inventoryRetention,
+                             @Value("${enrollment.preload-ahead:15m}") Duration preloadAhead) {
+        this.sectionRepository = sectionRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.seatInventory = seatInventory;
+        this.seatConfirmer = seatConfirmer;
+        this.scheduleIndex = scheduleIndex;
+        this.inventoryRetention = inventoryRetention;
+        this.preloadAhead = preloadAhead;
+        this.sections = Caffeine.newBuilder().expireAfterWrite(sectionCacheTtl).maximumSize(10_000).build();
+        for (SeatReservation outcome : SeatReservation.values()) {
+            reservations.put(outcome, Counter.builder("enrollment.reservations")
+                    .tag("result", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    public EnrollmentResponse enroll(String username, long sectionId) {
+        CourseSection section = openSection(sectionId);
+        // Claim the slots first, so two concurrent requests for clashing sections cannot both pass
+        TimetableChange change = scheduleIndex.tryAdd(username, sectionId);
+        if (change == TimetableChange.CLASH) {
+            throw new BusinessException("Schedule clashes with " + scheduleIndex.findClashes(username, new long[]{sectionId}).stream()
+                    .map(ScheduleClash::clashingSection)
+                    .collect(Collectors.joining(", ")));
+        }
+        SeatReservation outcome;
+        try {
+            outcome = reserveSeat(section, username);
+        } catch (RuntimeException e) {
+            if (change == TimetableChange.ADDED) {
+                scheduleIndex.remove(username, sectionId);
+            }
+            throw e;
+        }
+        reservations.get(outcome).increment();
+        if (outcome != SeatReservation.RESERVED && outcome != SeatReservation.ALREADY_HELD && change == TimetableChange.ADDED) {
+            scheduleIndex.remove(username, sectionId);
+        }
+        return switch (outcome) {
+            case RESERVED -> {
+                seatConfirmer.submit(sectionId, username);
+                yield toEnrollment(section, "RESERVED");
+            }
+            case ALREADY_HELD -> toEnrollment(section, "ALREADY_ENROLLED");
+            case FULL -> throw new BusinessException("Section is full");
+            case NOT_LOADED -> throw new IllegalStateException("Seats of section " + sectionId + " could not be loaded");
+        };
+    }
+
+    public void drop(String username, long sectionId) {
+        CourseSection section = openSection(sectionId);
+        if (!seatInventory.isLoaded(sectionId)) {
+            loadSeats(section);
+        }
+        if (!seatInventory.release(sectionId, username)) {
+            throw new BusinessException("Not enrolled in this section");
+        }
+        scheduleIndex.remove(username, sectionId);
+        seatConfirmer.submit(sectionId, username);
+    }
+
+    /**
+     * What-if check of a whole timetable: clashes among the proposed sections and with the sections the
+     * student already holds. Nothing is reserved.
+     */
+    public TimetableCheckResponse checkTimetable(String username, List<Long> sectionIds) {
+        long[] ids = sectionIds.stream().distinct().mapToLong(Long::longValue).toArray();
+        for (long id : ids) {
+            section(id);
+        }
+        List<ScheduleClash> clashes = scheduleIndex.findClashes(username, ids);
+        return TimetableCheckResponse.builder()
+                .valid(clashes.isEmpty())
+                .clashes(clashes)
+                .build();
+    }
+
+    /**
+     * Confirmed enrollments; a seat reserved in the last {@code enrollment.confirm.interval} may not be listed yet.
+     */
+    public List<EnrollmentResponse> listEnrollments(String username) {
+        return enrollmentRepository.findByStudent(username).stream()
+                .map(row -> EnrollmentResponse.builder()
+                        .sectionId(row.sectionId())
+                        .courseCode(row.courseCode())
+                        .sectionCode(row.sectionCode())
+                        .semester(row.semester())
+                        .status("ENROLLED")
+                        .enrolledAt(row.enrolledAt())
+                        .build())
+                .toList();
+    }
+
+    public SectionResponse createSection(SectionRequest request) {
+        if (!request.getRegistrationClosesAt().isAfter(request.getRegistrationOpensAt())) {
+            throw new BusinessException("Registration must close after it opens");
+        }
+        List<SectionMeeting> meetings = request.getMeetings() == null ? List.of() : request.getMeetings().stream()
+                .map(m -> new SectionMeeting(m.getDayOfWeek(), m.getFirstPeriod(), m.getLastPeriod()))
+                .toList();
+        if (meetings.stream().anyMatch(m -> m.getFirstPeriod() > m.getLastPeriod())) {
+            throw new BusinessException("A meeting must not end before it starts");
+        }
+        CourseSection section = sectionRepository.save(CourseSection.builder()
+                .courseCode(request.getCourseCode())
+                .sectionCode(request.getSectionCode())
+                .semester(request.getSemester())
+                .capacity(request.getCapacity())
+                .credits(request.getCredits())
+                .registrationOpensAt(request.getRegistrationOpensAt())
+                .registrationClosesAt(request.getRegistrationClosesAt())
+                .meetings(new ArrayList<>(meetings))
+                .build());
+        scheduleIndex.register(section);
+        return SectionResponse.builder()
+                .id(section.getId())
+                .courseCode(section.getCourseCode())
+                .sectionCode(section.getSectionCode())
+                .semester(section.getSemester())
+                .capacity(section.getCapacity())
+                .credits(section.getCredits())
+                .registrationOpensAt(section.getRegistrationOpensAt())
+                .registrationClosesAt(section.getRegistrationClosesAt())
+                .meetings(request.getMeetings())
+                .build();
+    }
+
+    /**
+     * Loads sections whose registration opens soon, so the first wave of students does not have to.
+     */
+    @Scheduled(fixedDelayString = "${enrollment.preload-interval:1m}")
+    public void preloadUpcoming() {
+        Instant now = Instant.now();
+        try {
+            for (CourseSection section : sectionRepository.findByRegistrationClosesAtAfter(now)) {
+                if (section.getRegistrationOpensAt().isBefore(now.plus(preloadAhead)) && !seatInventory.isLoaded(section.getId())) {
+                    loadSeats(section);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not preload seat inventory", e);
+        }
+    }
+
+    private CourseSection openSection(long sectionId) {
+        CourseSection section = section(sectionId);
+        if (!section.isRegistrationOpen(Instant.now())) {
+            throw new BusinessException("Registration is closed for this section");
+        }
+        return section;
+    }
+
+    private CourseSection section(long sectionId) {
+        CourseSection section = sections.get(sectionId, this::loadSection);
+        if (section == null) {
+            throw new BusinessException("Section not found: " + sectionId);
+        }
+        return section;
+    }
+
+    private CourseSection loadSection(long sectionId) {
+        CourseSection section = sectionRepository.findWithMeetingsById(sectionId).orElse(null);
+        if (section != null) {
+            scheduleIndex.register(section);
+        }
+        return section;
+    }
+
+    /**
+     * Seeds the inventory from the enrollments table. Requests on this node that miss the same section at
+     * the same time wait for one load instead of each reading the table; across nodes the first load wins.
+     */
+    private void loadSeats(CourseSection section) {
+        CompletableFuture<Void> load = new CompletableFuture<>();
+        CompletableFuture<Void> inFlight = loading.putIfAbsent(section.getId(), load);
+        if (inFlight != null) {
+            inFlight.join();
+            return;
+        }
+        try {
+            seatInventory.load(section.getId(), section.getCapacity(), enrollmentRepository.findHolders(section.getId()),
+                    section.getRegistrationClosesAt().plus(inventoryRetention));
+            load.complete(null);
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(section.getId(), load);
+        }
+    }
+
+    private SeatReservation reserveSeat(CourseSection section, String username) {
+        SeatReservation outcome = seatInventory.reserve(section.getId(), username);
+        if (outcome == SeatReservation.NOT_LOADED) {
+            loadSeats(section);
+            outcome = seatInventory.reserve(section.getId(), username);
+        }
+        return outcome;
+    }
+
+    private static EnrollmentResponse toEnrollment(CourseSection section, String status) {
+        return EnrollmentResponse.builder()
+                .sectionId(section.getId())
+                .courseCode(section.getCourseCode())
+                .sectionCode(section.getSectionCode())
+                .semester(section.getSemester())
+                .status(status)
+                .build();
+    }
+}
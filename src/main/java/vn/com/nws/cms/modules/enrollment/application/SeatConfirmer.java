@@ -0,0 +1,169 @@
+package vn.com.nws.cms.modules.enrollment.application;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import vn.com.nws.cms.common.util.MpscRingBuffer;
+import vn.com.nws.cms.modules.enrollment.domain.model.CourseSection;
+import vn.com.nws.cms.modules.enrollment.domain.repository.CourseSectionRepository;
+import vn.com.nws.cms.modules.enrollment.domain.repository.SeatInventory;
+import vn.com.nws.cms.modules.enrollment.infrastructure.EnrollmentRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Confirms seat changes to Postgres in batches. Reserving or dropping a seat only enqueues the
+ * (section, student) pair; every {@code enrollment.confirm.interval} the queue is drained, grouped by
+ * section, and each section is brought in line with what the {@link SeatInventory} holds at that moment.
+ * Because the database follows the inventory's current state rather than replaying operations, the
+ * order in which changes arrive (possibly through different nodes) does not matter and repeating one is
+ * harmless. Reconciliation compares inventory and database for sections still in registration and
+ * enqueues every difference, which repairs changes lost to a full queue, a failed batch or a node crash.
+ */
+@Component
+@Slf4j
+public class SeatConfirmer implements DisposableBean {
+
+    private final SeatInventory seatInventory;
+    private final EnrollmentRepository enrollmentRepository;
+    private final CourseSectionRepository sectionRepository;
+    private final MpscRingBuffer<SeatChange> queue;
+    private final int batchSize;
+    private final Duration reconcileGrace;
+    private final ReentrantLock confirmLock = new ReentrantLock();
+    private final Counter confirmed;
+    private final Counter rejected;
+    private final Counter overflow;
+    private final Counter repaired;
+    private final Timer batchTimer;
+
+    public SeatConfirmer(SeatInventory seatInventory,
+                         EnrollmentRepository enrollmentRepository,
+                         CourseSectionRepository sectionRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${enrollment.confirm.queue-capacity:65536}") int queueCapacity,
+                         @Value("${enrollment.confirm.batch-size:1000}") int batchSize,
+                         @Value("${enrollment.reconcile.grace:1d}") Duration reconcileGrace) {
+        this.seatInventory = seatInventory;
+        this.enrollmentRepository = enrollmentRepository;
+        this.sectionRepository = sectionRepository;
+        this.queue = new MpscRingBuffer<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.reconcileGrace = reconcileGrace;
+        this.confirmed = Counter.builder("enrollment.confirm.changes").tag("result", "confirmed").register(meterRegistry);
+        this.rejected = Counter.builder("enrollment.confirm.changes").tag("result", "rejected").register(meterRegistry);
+        this.overflow = Counter.builder("enrollment.confirm.changes").tag("result", "overflow").register(meterRegistry);
+        this.repaired = Counter.builder("enrollment.reconcile.repaired").register(meterRegistry);
+        this.batchTimer = Timer.builder("enrollment.confirm.batch").register(meterRegistry);
+        Gauge.builder("enrollment.confirm.pending", queue, MpscRingBuffer::size).register(meterRegistry);
+    }
+
+    /**
+     * Schedules the student's seat in the section for confirmation. Never blocks; when the queue is full
+     * the change is left to reconciliation.
+     */
+    public void submit(long sectionId, String student) {
+        if (!queue.offer(new SeatChange(sectionId, student))) {
+            overflow.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${enrollment.confirm.interval:200ms}")
+    public void confirm() {
+        // Not synchronized, see VIRTUAL_THREADS.md 2.1
+        if (!confirmLock.tryLock()) {
+            return;
+        }
+        try {
+            List<SeatChange> batch = new ArrayList<>(batchSize);
+            // Bounded by what is queued now: failed changes go back to the queue for the next run
+            int remaining = queue.size();
+            while (remaining > 0) {
+                batch.clear();
+                int drained = queue.drain(batch::add, Math.min(batchSize, remaining));
+                if (drained == 0) {
+                    break;
+                }
+                remaining -= drained;
+                batchTimer.record(() -> apply(batch));
+            }
+        } finally {
+            confirmLock.unlock();
+        }
+    }
+
+    private void apply(List<SeatChange> batch) {
+        Map<Long, Set<String>> bySection = new HashMap<>();
+        for (SeatChange change : batch) {
+            bySection.computeIfAbsent(change.sectionId(), id -> new HashSet<>()).add(change.student());
+        }
+        bySection.forEach((sectionId, students) -> {
+            try {
+                List<String> enrolled = new ArrayList<>(students.size());
+                List<String> dropped = new ArrayList<>();
+                seatInventory.holding(sectionId, students).forEach((student, holds) ->
+                        (holds ? enrolled : dropped).add(student));
+                int notFitting = enrollmentRepository.applySeatChanges(sectionId, enrolled, dropped);
+                confirmed.increment(students.size() - notFitting);
+                if (notFitting > 0) {
+                    rejected.increment(notFitting);
+                    log.error("Section {} is full in the database but {} more students hold a seat in the inventory",
+                            sectionId, notFitting);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not confirm {} seat changes for section {}; retrying", students.size(), sectionId, e);
+                students.forEach(student -> submit(sectionId, student));
+            }
+        });
+    }
+
+    @Scheduled(initialDelayString = "${enrollment.reconcile.interval:5m}",
+            fixedDelayString = "${enrollment.reconcile.interval:5m}")
+    public void reconcile() {
+        try {
+            for (CourseSection section : sectionRepository.findByRegistrationClosesAtAfter(Instant.now().minus(reconcileGrace))) {
+                long sectionId = section.getId();
+                if (!seatInventory.isLoaded(sectionId)) {
+                    continue;
+                }
+                Set<String> inInventory = seatInventory.holders(sectionId);
+                Set<String> inDatabase = enrollmentRepository.findHolders(sectionId);
+                int differences = 0;
+                for (String student : inInventory) {
+                    if (!inDatabase.remove(student)) {
+                        submit(sectionId, student);
+                        differences++;
+                    }
+                }
+                // What is left in the database no longer holds a seat
+                inDatabase.forEach(student -> submit(sectionId, student));
+                differences += inDatabase.size();
+                repaired.increment(differences);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Seat reconciliation failed", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        confirm();
+    }
+
+    private record SeatChange(long sectionId, String student) {
+    }
+}
@@ -0,0 +1,60 @@
+package vn.com.nws.cms.modules.enrollment.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Table(name = "course_sections")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseSection {
+
+    // Schema lives in db/migration/V4__enrollment.sql
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String courseCode;
+
+    @Column(nullable = false)
+    private String sectionCode;
+
+    @Column(nullable = false)
+    private String semester;
+
+    @Column(nullable = false)
+    private int capacity;
+
+    @Column(nullable = false)
+    private int credits;
+
+    @Column(nullable = false)
+    private Instant registrationOpensAt;
+
+    @Column(nullable = false)
+    private Instant registrationClosesAt;
+
+    @ElementCollection
+    @CollectionTable(name = "section_meetings", joinColumns = @JoinColumn(name = "section_id"))
+    @Builder.Default
+    private List<SectionMeeting> meetings = new ArrayList<>();
+
+    public boolean isRegistrationOpen(Instant now) {
+        return !now.isBefore(registrationOpensAt) && now.isBefore(registrationClosesAt);
+    }
+
+    /** Course and section code, e.g. {@code CS101-01}. */
+    public String label() {
+        return courseCode + "-" + sectionCode;
+    }
+}
@@ -0,0 +1,7 @@
+package vn.com.nws.cms.modules.enrollment.domain.model;
+
+/**
+ * Two sections that meet in the same period.
+ */
+public record ScheduleClash(long sectionId, String section, long clashingSectionId, String clashingSection) {
+}
@@ -0,0 +1,12 @@
+package vn.com.nws.cms.modules.enrollment.domain.model;
+
+/**
+ * Outcome of a single seat reservation attempt.
+ */
+public enum SeatReservation {
+    RESERVED,
+    ALREADY_HELD,
+    FULL,
+    /** The section's seat counter has not been loaded into the inventory yet. */
+    NOT_LOADED
+}
@@ -0,0 +1,26 @@
+package vn.com.nws.cms.modules.enrollment.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A weekly class meeting: ISO day of week (1 = Monday) and an inclusive range of teaching periods.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SectionMeeting {
+
+    @Column(nullable = false)
+    private int dayOfWeek;
+
+    @Column(nullable = false)
+    private int firstPeriod;
+
+    @Column(nullable = false)
+    private int lastPeriod;
+}
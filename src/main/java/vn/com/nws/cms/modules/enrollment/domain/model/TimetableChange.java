@@ -0,0 +1,11 @@
+package vn.com.nws.cms.modules.enrollment.domain.model;
+
+/**
+ * Result of adding a section to a student's timetable.
+ */
+public enum TimetableChange {
+    ADDED,
+    /** The student already had the section. */
+    UNCHANGED,
+    CLASH
+}
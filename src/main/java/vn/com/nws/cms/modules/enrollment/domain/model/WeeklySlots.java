@@ -0,0 +1,50 @@
+package vn.com.nws.cms.modules.enrollment.domain.model;
+
+import java.util.Collection;
+
+/**
+ * The teaching periods a schedule occupies in a week, as a 128-bit mask: bit {@code (day - 1) * 16 +
+ * (period - 1)} for ISO days 1-7 and periods 1-16. Two schedules clash exactly when their masks
+ * intersect, so a clash check is two ANDs.
+ */
+public record WeeklySlots(long low, long high) {
+
+    public static final int DAYS = 7;
+    public static final int PERIODS_PER_DAY = 16;
+    public static final WeeklySlots EMPTY = new WeeklySlots(0, 0);
+
+    public static WeeklySlots of(Collection<SectionMeeting> meetings) {
+        long low = 0;
+        long high = 0;
+        for (SectionMeeting meeting : meetings) {
+            if (meeting.getDayOfWeek() < 1 || meeting.getDayOfWeek() > DAYS || meeting.getFirstPeriod() < 1
+                    || meeting.getLastPeriod() > PERIODS_PER_DAY || meeting.getFirstPeriod() > meeting.getLastPeriod()) {
+                throw new IllegalArgumentException("Invalid meeting " + meeting);
+            }
+            for (int period = meeting.getFirstPeriod(); period <= meeting.getLastPeriod(); period++) {
+                int bit = (meeting.getDayOfWeek() - 1) * PERIODS_PER_DAY + period - 1;
+                if (bit < Long.SIZE) {
+                    low |= 1L << bit;
+                } else {
+                    high |= 1L << (bit - Long.SIZE);
+                }
+            }
+        }
+        return new WeeklySlots(low, high);
+    }
+
+    public boolean overlaps(WeeklySlots other) {
+        return ((low & other.low) | (high & other.high)) != 0;
+    }
+
+    public WeeklySlots union(WeeklySlots other) {
+        return new WeeklySlots(low | other.low, high | other.high);
+    }
+
+    /** The periods of one ISO day (1-7), bit {@code period - 1}. */
+    public int day(int day) {
+        int bit = (day - 1) * PERIODS_PER_DAY;
+        long word = bit < Long.SIZE ? low >>> bit : high >>> (bit - Long.SIZE);
+        return (int) (word & 0xFFFF);
+    }
+}
@@ -0,0 +1,18 @@
+package vn.com.nws.cms.modules.enrollment.domain.repository;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import vn.com.nws.cms.modules.enrollment.domain.model.CourseSection;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CourseSectionRepository extends JpaRepository<CourseSection, Long> {
+    List<CourseSection> findByRegistrationClosesAtAfter(Instant cutoff);
+
+    @EntityGraph(attributePaths = "meetings")
+    Optional<CourseSection> findWithMeetingsById(Long id);
+}
@@ -0,0 +1,37 @@
+package vn.com.nws.cms.modules.enrollment.domain.repository;
+
+import vn.com.nws.cms.modules.enrollment.domain.model.SeatReservation;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Authoritative seat counters for sections open for registration, shared by all nodes. A reservation is
+ * a single atomic check-and-take, so a section can never hand out more seats than its capacity; the
+ * database is brought in line afterwards.
+ */
+public interface SeatInventory {
+
+    SeatReservation reserve(long sectionId, String student);
+
+    /**
+     * @return whether the student held a seat
+     */
+    boolean release(long sectionId, String student);
+
+    /**
+     * Seeds a section with its capacity and current holders unless it is already loaded; the entry
+     * expires at {@code expiresAt}.
+     *
+     * @return whether this call loaded the section
+     */
+    boolean load(long sectionId, int capacity, Collection<String> holders, Instant expiresAt);
+
+    boolean isLoaded(long sectionId);
+
+    Map<String, Boolean> holding(long sectionId, Collection<String> students);
+
+    Set<String> holders(long sectionId);
+}
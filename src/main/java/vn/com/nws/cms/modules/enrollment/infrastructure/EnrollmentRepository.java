@@ -0,0 +1,111 @@
+package vn.com.nws.cms.modules.enrollment.infrastructure;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Set-based JDBC access to {@code enrollments}. Students are identified by username, as in the seat
+ * inventory, and resolved to ids inside each statement.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EnrollmentRepository {
+
+    private static final String LOCK_SECTION = "SELECT capacity FROM course_sections WHERE id = ? FOR UPDATE";
+    private static final String DELETE_ENROLLMENTS = """
+            DELETE FROM enrollments e
+            USING users u
+            WHERE e.section_id = ? AND e.student_id = u.id AND u.username = ANY(?)
+            """;
+    // Inserts the students not enrolled yet, but never past capacity; returns how many did not fit
+    private static final String INSERT_ENROLLMENTS = """
+            WITH missing AS (
+                SELECT u.id FROM users u
+                WHERE u.username = ANY(?)
+                  AND NOT EXISTS (SELECT 1 FROM enrollments e WHERE e.section_id = ? AND e.student_id = u.id)
+            ), inserted AS (
+                INSERT INTO enrollments (section_id, student_id)
+                SELECT ?, id FROM missing
+                ORDER BY id
+                LIMIT greatest(? - (SELECT count(*) FROM enrollments WHERE section_id = ?), 0)
+                RETURNING 1
+            )
+            SELECT (SELECT count(*) FROM missing) - (SELECT count(*) FROM inserted)
+            """;
+    private static final String SELECT_HOLDERS = """
+            SELECT u.username
+            FROM enrollments e
+            JOIN users u ON u.id = e.student_id
+            WHERE e.section_id = ?
+            """;
+    private static final String SELECT_BY_STUDENT = """
+            SELECT s.id, s.course_code, s.section_code, s.semester, e.enrolled_at
+            FROM enrollments e
+            JOIN users u ON u.id = e.student_id
+            JOIN course_sections s ON s.id = e.section_id
+            WHERE u.username = ?
+            ORDER BY s.semester, s.course_code, s.section_code
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Brings one section in line with the seat inventory. The section row is locked for the duration, so
+     * concurrent writers for the same section serialize and the capacity check cannot be raced.
+     *
+     * @return the number of students in {@code enrolled} that were left out because the section is full
+     */
+    @Transactional
+    public int applySeatChanges(long sectionId, Collection<String> enrolled, Collection<String> dropped) {
+        Integer capacity = jdbcTemplate.queryForObject(LOCK_SECTION, Integer.class, sectionId);
+        if (!dropped.isEmpty()) {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(DELETE_ENROLLMENTS);
+                ps.setLong(1, sectionId);
+                ps.setArray(2, textArray(connection, dropped));
+                return ps;
+            });
+        }
+        if (enrolled.isEmpty() || capacity == null) {
+            return 0;
+        }
+        Integer rejected = jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_ENROLLMENTS);
+            ps.setArray(1, textArray(connection, enrolled));
+            ps.setLong(2, sectionId);
+            ps.setLong(3, sectionId);
+            ps.setInt(4, capacity);
+            ps.setLong(5, sectionId);
+            return ps;
+        }, rs -> rs.next() ? rs.getInt(1) : 0);
+        return rejected != null ? rejected : 0;
+    }
+
+    public Set<String> findHolders(long sectionId) {
+        return new HashSet<>(jdbcTemplate.queryForList(SELECT_HOLDERS, String.class, sectionId));
+    }
+
+    public List<EnrolledSection> findByStudent(String username) {
+        return jdbcTemplate.query(SELECT_BY_STUDENT, (rs, rowNum) -> new EnrolledSection(rs.getLong(1),
+                rs.getString(2), rs.getString(3), rs.getString(4), rs.getTimestamp(5).toInstant()), username);
+    }
+
+    private static java.sql.Array textArray(Connection connection, Collection<String> values) throws SQLException {
+        return connection.createArrayOf("text", values.toArray());
+    }
+
+    public record EnrolledSection(long sectionId, String courseCode, String sectionCode, String semester,
+                                  Instant enrolledAt) {
+    }
+}
@@ -0,0 +1,95 @@
+package vn.com.nws.cms.modules.enrollment.infrastructure;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import vn.com.nws.cms.modules.enrollment.domain.model.SeatReservation;
+import vn.com.nws.cms.modules.enrollment.domain.repository.SeatInventory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Redis-backed {@link SeatInventory}: per section a capacity key ({@code enroll:capacity:{id}}) and the set
+ * of usernames holding a seat ({@code enroll:seats:{id}}). The hash tag keeps both in one cluster slot, so
+ * a reservation is one {@code EVALSHA} of {@code reserve-seat.lua}.
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisSeatInventory implements SeatInventory {
+
+    private static final RedisScript<Long> RESERVE_SEAT =
+            RedisScript.of(new ClassPathResource("scripts/reserve-seat.lua"), Long.class);
+    private static final RedisScript<Long> LOAD_SECTION_SEATS =
+            RedisScript.of(new ClassPathResource("scripts/load-section-seats.lua"), Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    @Override
+    public SeatReservation reserve(long sectionId, String student) {
+        Long result = redisTemplate.execute(RESERVE_SEAT, keys(sectionId), student);
+        return switch (result != null ? result.intValue() : -2) {
+            case 1 -> SeatReservation.RESERVED;
+            case 0 -> SeatReservation.ALREADY_HELD;
+            case -1 -> SeatReservation.FULL;
+            default -> SeatReservation.NOT_LOADED;
+        };
+    }
+
+    @Override
+    public boolean release(long sectionId, String student) {
+        Long removed = redisTemplate.opsForSet().remove(seatsKey(sectionId), student);
+        return removed != null && removed > 0;
+    }
+
+    @Override
+    public boolean load(long sectionId, int capacity, Collection<String> holders, Instant expiresAt) {
+        List<Object> args = new ArrayList<>(holders.size() + 2);
+        args.add(String.valueOf(capacity));
+        args.add(String.valueOf(expiresAt.toEpochMilli()));
+        args.addAll(holders);
+        Long loaded = redisTemplate.execute(LOAD_SECTION_SEATS, keys(sectionId), args.toArray());
+        return loaded != null && loaded == 1;
+    }
+
+    @Override
+    public boolean isLoaded(long sectionId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(capacityKey(sectionId)));
+    }
+
+    @Override
+    public Map<String, Boolean> holding(long sectionId, Collection<String> students) {
+        Map<Object, Boolean> members = redisTemplate.opsForSet().isMember(seatsKey(sectionId), students.toArray());
+        Map<String, Boolean> result = new HashMap<>(students.size());
+        for (String student : students) {
+            result.put(student, members != null && Boolean.TRUE.equals(members.get(student)));
+        }
+        return result;
+    }
+
+    @Override
+    public Set<String> holders(long sectionId) {
+        Set<Object> members = redisTemplate.opsForSet().members(seatsKey(sectionId));
+        return members == null ? Set.of() : members.stream().map(String::valueOf).collect(Collectors.toSet());
+    }
+
+    private static List<String> keys(long sectionId) {
+        return List.of(capacityKey(sectionId), seatsKey(sectionId));
+    }
+
+    private static String capacityKey(long sectionId) {
+        return "enroll:capacity:{" + sectionId + "}";
+    }
+
+    private static String seatsKey(long sectionId) {
+        return "enroll:seats:{" + sectionId + "}";
+    }
+}
@@ -0,0 +1,494 @@
+package vn.com.nws.cms.modules.enrollment.infrastructure;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.com.nws.cms.common.exception.ServiceUnavailableException;
+import vn.com.nws.cms.modules.enrollment.domain.model.CourseSection;
+import vn.com.nws.cms.modules.enrollment.domain.model.ScheduleClash;
+import vn.com.nws.cms.modules.enrollment.domain.model.SectionMeeting;
+import vn.com.nws.cms.modules.enrollment.domain.model.TimetableChange;
+import vn.com.nws.cms.modules.enrollment.domain.model.WeeklySlots;
+import vn.com.nws.cms.modules.enrollment.domain.repository.CourseSectionRepository;
+import vn.com.nws.cms.modules.enrollment.domain.repository.SeatInventory;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory timetables for the schedule clash check. Every section of a semester that still has
+ * registration open is kept as a {@link WeeklySlots} mask, and every student as the union of the masks of
+ * the sections they hold in that semester, so checking a section against a student's whole load is one
+ * map lookup and two ANDs. Enroll and drop update the index incrementally and pub/sub replicates the
+ * change to the other nodes; a periodic rebuild from the seat inventory (falling back to the database
+ * for sections not loaded there) corrects anything missed. With Redis, claims are also checked and
+ * recorded in a per-student timetable there ({@code claim-timetable.lua}), so a claim is atomic across
+ * nodes; the local index only answers the clashes it already knows about. Clash checks are refused
+ * until the first build has completed.
+ */
+@Component
+@Slf4j
+public class ScheduleIndex implements MessageListener {
+
+    public static final String CHANNEL = "enroll:timetable";
+    private static final char SEPARATOR = '|';
+    private static final String TIMETABLE_KEY_PREFIX = "enroll:timetable:";
+    private static final RedisScript<Long> CLAIM_TIMETABLE =
+            RedisScript.of(new ClassPathResource("scripts/claim-timetable.lua"), Long.class);
+    private static final String SELECT_SECTIONS = """
+            SELECT s.id, s.semester, s.course_code, s.section_code, s.registration_closes_at,
+                   m.day_of_week, m.first_period, m.last_period
+            FROM course_sections s
+            LEFT JOIN section_meetings m ON m.section_id = s.id
+            WHERE s.semester IN (SELECT semester FROM course_sections WHERE registration_closes_at > ?)
+            """;
+    private static final String SELECT_ENROLLMENTS = """
+            SELECT e.section_id, u.username
+            FROM enrollments e
+            JOIN course_sections s ON s.id = e.section_id
+            JOIN users u ON u.id = e.student_id
+            WHERE s.semester IN (SELECT semester FROM course_sections WHERE registration_closes_at > ?)
+            """;
+    private static final int FETCH_SIZE = 10_000;
+    private static final long RETRY_AFTER_SECONDS = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final CourseSectionRepository sectionRepository;
+    private final SeatInventory seatInventory;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final boolean shared;
+    private final Duration timetableRetention;
+    private final Timer buildTimer;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile Index index;
+    private volatile Index next; // receives changes while a rebuild is running
+
+    public ScheduleIndex(DataSource dataSource,
+                         PlatformTransactionManager transactionManager,
+                         CourseSectionRepository sectionRepository,
+                         SeatInventory seatInventory,
+                         RedisTemplate<String, Object> redisTemplate,
+                         ObjectProvider<RedisMessageListenerContainer> listenerContainer,
+                         MeterRegistry meterRegistry,
+                         @Value("${enrollment.inventory-retention:1d}") Duration timetableRetention) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.sectionRepository = sectionRepository;
+        this.seatInventory = seatInventory;
+        this.redisTemplate = redisTemplate;
+        this.timetableRetention = timetableRetention;
+        this.buildTimer = Timer.builder("enrollment.schedule-index.build").register(meterRegistry);
+        Gauge.builder("enrollment.schedule-index.sections", this, i -> i.size(false)).register(meterRegistry);
+        Gauge.builder("enrollment.schedule-index.timetables", this, i -> i.size(true)).register(meterRegistry);
+        RedisMessageListenerContainer container = listenerContainer.getIfAvailable();
+        this.shared = container != null;
+        if (shared) {
+            container.addMessageListener(this, new ChannelTopic(CHANNEL));
+        }
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    /**
+     * Makes a section's schedule known to the index, e.g. one created after the last rebuild.
+     */
+    public void register(CourseSection section) {
+        Section entry = Section.of(section);
+        Index pending = next;
+        Index current = index;
+        if (current != null) {
+            current.sections.put(section.getId(), entry);
+        }
+        if (pending != null) {
+            pending.sections.put(section.getId(), entry);
+        }
+    }
+
+    /**
+     * Adds the section to the student's timetable unless it clashes with a section they hold in the same
+     * semester. Atomic per student across all nodes sharing Redis, or on this node without it.
+     */
+    public TimetableChange tryAdd(String username, long sectionId) {
+        Index pending = next; // read before index
+        Index current = requireIndex();
+        Section section = section(current, sectionId);
+        TimetableChange change = shared ? claim(current, username, sectionId, section) : current.tryAdd(username, sectionId, section);
+        if (change == TimetableChange.ADDED) {
+            if (pending != null) {
+                pending.add(username, sectionId, section);
+            }
+            publish('+', sectionId, username);
+        }
+        return change;
+    }
+
+    public void remove(String username, long sectionId) {
+        if (shared) {
+            Index current = index;
+            Section section = current != null ? section(current, sectionId) : sectionRepository.findWithMeetingsById(sectionId)
+                    .map(Section::of)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown section " + sectionId));
+            redisTemplate.opsForHash().delete(timetableKey(section.semester(), username), String.valueOf(sectionId));
+        }
+        apply('-', sectionId, username);
+        publish('-', sectionId, username);
+    }
+
+    /**
+     * Clashes the proposed sections would cause, among themselves and with the sections the student already
+     * holds in the same semester. Sections the student already holds may be part of the proposal.
+     */
+    public List<ScheduleClash> findClashes(String username, long[] proposedIds) {
+        Index current = requireIndex();
+        Section[] proposed = new Section[proposedIds.length];
+        List<ScheduleClash> clashes = new ArrayList<>();
+        for (int i = 0; i < proposedIds.length; i++) {
+            long id = proposedIds[i];
+            Section section = proposed[i] = section(current, id);
+            Timetable held = current.timetable(section.semester(), username);
+            if (held != null && held.slots().overlaps(section.slots())) {
+                for (long heldId : held.sectionIds()) {
+                    Section other = current.sections.get(heldId);
+                    if (heldId != id && other != null && !contains(proposedIds, heldId) && other.slots().overlaps(section.slots())) {
+                        clashes.add(new ScheduleClash(id, section.label(), heldId, other.label()));
+                    }
+                }
+            }
+            for (int j = 0; j < i; j++) {
+                Section other = proposed[j];
+                if (proposedIds[j] != id && other.semester().equals(section.semester()) && other.slots().overlaps(section.slots())) {
+                    clashes.add(new ScheduleClash(id, section.label(), proposedIds[j], other.label()));
+                }
+            }
+        }
+        return clashes;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(SEPARATOR, 2);
+        apply(body.charAt(0), Long.parseLong(body.substring(2, separator)), body.substring(separator + 1));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${enrollment.schedule-index.rebuild-interval:30m}",
+            fixedDelayString = "${enrollment.schedule-index.rebuild-interval:30m}")
+    public void rebuild() {
+        // Not synchronized, see VIRTUAL_THREADS.md 2.1
+        if (!rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            buildTimer.record(() -> {
+                Index building = new Index();
+                next = building;
+                Timestamp now = Timestamp.from(Instant.now());
+                Map<Long, SectionBuilder> sections = new HashMap<>();
+                Map<Long, Set<String>> holders = new HashMap<>();
+                // The fetch size only streams inside a transaction; outside one the driver buffers every row
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    jdbcTemplate.query(SELECT_SECTIONS, (RowCallbackHandler) rs -> {
+                        SectionBuilder section = sections.computeIfAbsent(rs.getLong(1), id -> new SectionBuilder());
+                        section.semester = rs.getString(2);
+                        section.label = rs.getString(3) + "-" + rs.getString(4);
+                        section.closesAt = rs.getTimestamp(5).toInstant();
+                        int day = rs.getInt(6);
+                        if (!rs.wasNull()) {
+                            section.meetings.add(new SectionMeeting(day, rs.getInt(7), rs.getInt(8)));
+                        }
+                    }, now);
+                    jdbcTemplate.query(SELECT_ENROLLMENTS, (RowCallbackHandler) rs ->
+                            holders.computeIfAbsent(rs.getLong(1), id -> new HashSet<>()).add(rs.getString(2)), now);
+                });
+                sections.forEach((id, section) -> building.sections.putIfAbsent(id,
+                        new Section(section.semester, section.label, section.closesAt, WeeklySlots.of(section.meetings))));
+
+                // Sections in the seat inventory are ahead of the database by the confirmation delay
+                for (Long id : sections.keySet()) {
+                    if (seatInventory.isLoaded(id)) {
+                        holders.put(id, seatInventory.holders(id));
+                    }
+                }
+                holders.forEach((id, students) -> {
+                    Section section = building.sections.get(id);
+                    if (section != null) {
+                        students.forEach(student -> building.add(student, id, section));
+                    }
+                });
+                // Publish, then clear next (VIRTUAL_THREADS.md 2.2)
+                index = building;
+                next = null;
+                log.info("Built schedule index over {} sections", sections.size());
+            });
+        } catch (RuntimeException e) {
+            next = null;
+            log.warn("Could not build the schedule index", e);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Checks and records the claim in the student's timetable in Redis, which every node claims through.
+     * The timetable is seeded from this node's index when Redis does not have it, e.g. after it expired.
+     */
+    private TimetableChange claim(Index current, String username, long sectionId, Section section) {
+        Timetable held = current.timetable(section.semester(), username);
+        if (held != null && held.contains(sectionId)) {
+            return TimetableChange.UNCHANGED;
+        }
+        if (held != null && held.slots().overlaps(section.slots())) {
+            return TimetableChange.CLASH;
+        }
+        List<Object> args = new ArrayList<>();
+        args.add(String.valueOf(sectionId));
+        args.add(dayMasks(section.slots()));
+        args.add(String.valueOf(section.closesAt().plus(timetableRetention).toEpochMilli()));
+        if (held != null) {
+            for (long heldId : held.sectionIds()) {
+                Section other = current.sections.get(heldId);
+                if (other != null) {
+                    args.add(String.valueOf(heldId));
+                    args.add(dayMasks(other.slots()));
+                }
+            }
+        }
+        Long result = redisTemplate.execute(CLAIM_TIMETABLE, List.of(timetableKey(section.semester(), username)), args.toArray());
+        if (result == null) {
+            throw new IllegalStateException("No answer from the timetable claim of section " + sectionId);
+        }
+        if (result < 0) {
+            // Claimed through another node whose change has not arrived here yet
+            long clashingId = -result;
+            current.add(username, clashingId, section(current, clashingId));
+            return TimetableChange.CLASH;
+        }
+        current.add(username, sectionId, section);
+        return result == 1 ? TimetableChange.ADDED : TimetableChange.UNCHANGED;
+    }
+
+    private void apply(char operation, long sectionId, String username) {
+        Index pending = next; // read before index
+        Index current = index;
+        for (Index target : new Index[]{current, pending}) {
+            if (target == null) {
+                continue;
+            }
+            if (operation == '+') {
+                target.add(username, sectionId, section(target, sectionId));
+            } else {
+                target.remove(username, sectionId);
+            }
+        }
+    }
+
+    private void publish(char operation, long sectionId, String username) {
+        if (shared) {
+            redisTemplate.convertAndSend(CHANNEL, String.valueOf(operation) + SEPARATOR + sectionId + SEPARATOR + username);
+        }
+    }
+
+    private static String timetableKey(String semester, String username) {
+        return TIMETABLE_KEY_PREFIX + semester + ':' + username;
+    }
+
+    private static String dayMasks(WeeklySlots slots) {
+        StringBuilder masks = new StringBuilder();
+        for (int day = 1; day <= WeeklySlots.DAYS; day++) {
+            if (day > 1) {
+                masks.append(',');
+            }
+            masks.append(slots.day(day));
+        }
+        return masks.toString();
+    }
+
+    private Index requireIndex() {
+        Index current = index;
+        if (current == null) {
+            throw new ServiceUnavailableException("Schedule index is loading, retry shortly", RETRY_AFTER_SECONDS);
+        }
+        return current;
+    }
+
+    /**
+     * Looks the section up in the index, loading it from the database if it is unknown there. Not
+     * computeIfAbsent: the load blocks on JDBC and must not run under a map bin lock.
+     */
+    private Section section(Index target, long sectionId) {
+        Section section = target.sections.get(sectionId);
+        if (section != null) {
+            return section;
+        }
+        Section loaded = sectionRepository.findWithMeetingsById(sectionId)
+                .map(Section::of)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown section " + sectionId));
+        Section existing = target.sections.putIfAbsent(sectionId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private double size(boolean timetables) {
+        Index current = index;
+        if (current == null) {
+            return 0;
+        }
+        return timetables
+                ? current.semesters.values().stream().mapToInt(Map::size).sum()
+                : current.sections.size();
+    }
+
+    private static boolean contains(long[] ids, long id) {
+        for (long candidate : ids) {
+            if (candidate == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Section(String semester, String label, Instant closesAt, WeeklySlots slots) {
+
+        static Section of(CourseSection section) {
+            return new Section(section.getSemester(), section.label(), section.getRegistrationClosesAt(),
+                    WeeklySlots.of(section.getMeetings()));
+        }
+    }
+
+    private static final class SectionBuilder {
+        String semester;
+        String label;
+        Instant closesAt;
+        final List<SectionMeeting> meetings = new ArrayList<>();
+    }
+
+    /**
+     * The sections a student holds in one semester and the union of their slots.
+     */
+    private record Timetable(long[] sectionIds, WeeklySlots slots) {
+
+        static final Timetable EMPTY = new Timetable(new long[0], WeeklySlots.EMPTY);
+
+        boolean contains(long sectionId) {
+            return ScheduleIndex.contains(sectionIds, sectionId);
+        }
+
+        Timetable with(long sectionId, WeeklySlots sectionSlots) {
+            long[] ids = Arrays.copyOf(sectionIds, sectionIds.length + 1);
+            ids[sectionIds.length] = sectionId;
+            return new Timetable(ids, slots.union(sectionSlots));
+        }
+
+        Timetable without(long sectionId, Map<Long, Section> sections) {
+            long[] ids = Arrays.stream(sectionIds).filter(id -> id != sectionId).toArray();
+            WeeklySlots union = WeeklySlots.EMPTY;
+            for (long id : ids) {
+                Section section = sections.get(id);
+                if (section != null) {
+                    union = union.union(section.slots());
+                }
+            }
+            return new Timetable(ids, union);
+        }
+    }
+
+    private static final class Index {
+
+        final ConcurrentMap<Long, Section> sections = new ConcurrentHashMap<>();
+        // semester -> username -> timetable; timetables are immutable and replaced on change
+        final ConcurrentMap<String, ConcurrentMap<String, Timetable>> semesters = new ConcurrentHashMap<>();
+
+        Timetable timetable(String semester, String username) {
+            ConcurrentMap<String, Timetable> students = semesters.get(semester);
+            return students != null ? students.get(username) : null;
+        }
+
+        TimetableChange tryAdd(String username, long sectionId, Section section) {
+            TimetableChange[] change = new TimetableChange[1];
+            students(section.semester()).compute(username, (key, current) -> {
+                Timetable timetable = current != null ? current : Timetable.EMPTY;
+                if (timetable.contains(sectionId)) {
+                    change[0] = TimetableChange.UNCHANGED;
+                    return current;
+                }
+                if (timetable.slots().overlaps(section.slots())) {
+                    change[0] = TimetableChange.CLASH;
+                    return current;
+                }
+                change[0] = TimetableChange.ADDED;
+                return timetable.with(sectionId, section.slots());
+            });
+            return change[0];
+        }
+
+        /** Adds without a clash check: whatever the seat inventory says the student holds is what they hold. */
+        void add(String username, long sectionId, Section section) {
+            students(section.semester()).compute(username, (key, current) -> {
+                Timetable timetable = current != null ? current : Timetable.EMPTY;
+                return timetable.contains(sectionId) ? timetable : timetable.with(sectionId, section.slots());
+            });
+        }
+
+        void remove(String username, long sectionId) {
+            Section section = sections.get(sectionId);
+            if (section == null) {
+                return;
+            }
+            ConcurrentMap<String, Timetable> students = semesters.get(section.semester());
+            if (students != null) {
+                students.computeIfPresent(username, (key, current) -> {
+                    if (!current.contains(sectionId)) {
+                        return current;
+                    }
+                    Timetable remaining = current.without(sectionId, sections);
+                    return remaining.sectionIds().length == 0 ? null : remaining;
+                });
+            }
+        }
+
+        private ConcurrentMap<String, Timetable> students(String semester) {
+            return semesters.computeIfAbsent(semester, s -> new ConcurrentHashMap<>());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package vn.com.nws.cms.modules.grading.api;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import vn.com.nws.cms.common.dto.ApiResponse;
+import vn.com.nws.cms.modules.grading.api.dto.GpaRecomputeResponse;
+import vn.com.nws.cms.modules.grading.application.GpaRecomputer;
+
+@RestController
+@RequestMapping("/api/admin/grading")
+@RequiredArgsConstructor
+public class GradingAdminController {
+
+    private final GpaRecomputer gpaRecomputer;
+
+    /**
+     * Rebuilds every student's GPA sums from their grades. Runs to completion before responding; a second
+     * request while one is running is refused with 503.
+     */
+    @PostMapping("/recompute")
+    public ResponseEntity<ApiResponse<GpaRecomputeResponse>> recompute() {
+        return ResponseEntity.ok(ApiResponse.success("GPA recomputed", gpaRecomputer.recomputeAll()));
+    }
+}
@@ -0,0 +1,30 @@
+package vn.com.nws.cms.modules.grading.api;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+import vn.com.nws.cms.common.dto.ApiResponse;
+import vn.com.nws.cms.modules.grading.api.dto.GradeEntryRequest;
+import vn.com.nws.cms.modules.grading.api.dto.GradeEntryResponse;
+import vn.com.nws.cms.modules.grading.application.GradingService;
+
+@RestController
+@RequestMapping("/api/grading")
+@RequiredArgsConstructor
+public class GradingController {
+
+    private final GradingService gradingService;
+
+    /**
+     * Enters or amends the final scores (0-10, one decimal) of students enrolled in the section.
+     */
+    @PutMapping("/sections/{sectionId}/grades")
+    public ResponseEntity<ApiResponse<GradeEntryResponse>> recordGrades(@AuthenticationPrincipal Jwt jwt,
+                                                                        @PathVariable long sectionId,
+                                                                        @Valid @RequestBody GradeEntryRequest request) {
+        return ResponseEntity.ok(ApiResponse.success("Grades recorded", gradingService.recordGrades(sectionId, jwt.getSubject(), request)));
+    }
+}
@@ -0,0 +1,32 @@
+package vn.com.nws.cms.modules.grading.api;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+import vn.com.nws.cms.common.dto.ApiResponse;
+import vn.com.nws.cms.modules.grading.api.dto.GpaResponse;
+import vn.com.nws.cms.modules.grading.api.dto.TranscriptResponse;
+import vn.com.nws.cms.modules.grading.application.GradingService;
+
+@RestController
+@RequestMapping("/api/transcript")
+@RequiredArgsConstructor
+public class TranscriptController {
+
+    private final GradingService gradingService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<TranscriptResponse>> transcript(@AuthenticationPrincipal Jwt jwt) {
+        return ResponseEntity.ok(ApiResponse.success(gradingService.transcript(jwt.getSubject())));
+    }
+
+    /**
+     * Credits and GPA only, read from the materialized sums; meant for dashboards.
+     */
+    @GetMapping("/gpa")
+    public ResponseEntity<ApiResponse<GpaResponse>> gpa(@AuthenticationPrincipal Jwt jwt) {
+        return ResponseEntity.ok(ApiResponse.success(gradingService.gpa(jwt.getSubject())));
+    }
+}
@@ -0,0 +1,18 @@
+package vn.com.nws.cms.modules.grading.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class GpaRecomputeResponse {
+    private long students;
+    private long corrected;
+    private int batches;
+    private int failedBatches;
+    private long durationMillis;
+}
@@ -0,0 +1,17 @@
+package vn.com.nws.cms.modules.grading.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class GpaResponse {
+    private int credits;
+    private BigDecimal gpa;
+}
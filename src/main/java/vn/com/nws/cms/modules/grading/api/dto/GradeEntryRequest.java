@@ -0,0 +1,38 @@
+package vn.com.nws.cms.modules.grading.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class GradeEntryRequest {
+    @NotEmpty(message = "Grades are required")
+    @Size(max = 2000, message = "At most 2000 grades can be entered at once")
+    @Valid
+    private List<Entry> grades;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        @NotBlank(message = "Username is required")
+        private String username;
+
+        @NotNull(message = "Score is required")
+        @DecimalMin(value = "0.0", message = "Score must be between 0 and 10")
+        @DecimalMax(value = "10.0", message = "Score must be between 0 and 10")
+        @Digits(integer = 2, fraction = 1, message = "Score must have at most one decimal")
+        private BigDecimal score;
+    }
+}
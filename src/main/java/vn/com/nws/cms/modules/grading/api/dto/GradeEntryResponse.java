@@ -0,0 +1,16 @@
+package vn.com.nws.cms.modules.grading.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class GradeEntryResponse {
+    private int recorded;
+    private int amended;
+    private int unchanged;
+}
@@ -0,0 +1,35 @@
+package vn.com.nws.cms.modules.grading.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TranscriptResponse {
+    private int credits;
+    private BigDecimal gpa;
+    private List<Entry> grades;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Entry {
+        private String semester;
+        private String courseCode;
+        private String sectionCode;
+        private int credits;
+        private BigDecimal score;
+        private BigDecimal gradePoint;
+        private String letter;
+        private Instant gradedAt;
+    }
+}
@@ -0,0 +1,120 @@
+package vn.com.nws.cms.modules.grading.application;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import vn.com.nws.cms.common.exception.ServiceUnavailableException;
+import vn.com.nws.cms.modules.grading.api.dto.GpaRecomputeResponse;
+import vn.com.nws.cms.modules.grading.infrastructure.GradeRepository;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Rebuilds every student's GPA sums from their grades, e.g. after a bulk correction made directly in the
+ * database. The sorted student ids are split recursively across a dedicated fork-join pool until a part
+ * holds at most {@code grading.recompute.batch-size} students; each part is one transaction that locks,
+ * recomputes and writes its students' sums in a single statement. The pool is kept small
+ * ({@code grading.recompute.parallelism}) because every worker holds a database connection.
+ */
+@Component
+@Slf4j
+public class GpaRecomputer {
+
+    private static final long RETRY_AFTER_SECONDS = 60;
+
+    private final GradeRepository gradeRepository;
+    private final ForkJoinPool pool;
+    private final Semaphore recomputePermit = new Semaphore(1);
+    private final int batchSize;
+    private final Counter corrected;
+    private final Timer recomputeTimer;
+
+    public GpaRecomputer(GradeRepository gradeRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${grading.recompute.parallelism:4}") int parallelism,
+                         @Value("${grading.recompute.batch-size:2000}") int batchSize) {
+        this.gradeRepository = gradeRepository;
+        this.pool = new ForkJoinPool(parallelism);
+        this.batchSize = batchSize;
+        this.corrected = Counter.builder("grading.recompute.corrected").register(meterRegistry);
+        this.recomputeTimer = Timer.builder("grading.recompute").register(meterRegistry);
+    }
+
+    public GpaRecomputeResponse recomputeAll() {
+        if (!recomputePermit.tryAcquire()) {
+            throw new ServiceUnavailableException("A GPA recomputation is already running", RETRY_AFTER_SECONDS);
+        }
+        try {
+            long start = System.currentTimeMillis();
+            long[] studentIds = gradeRepository.findStudentIds();
+            Totals totals = studentIds.length == 0 ? Totals.NONE
+                    : recomputeTimer.record(() -> pool.invoke(new Partition(studentIds, 0, studentIds.length)));
+            corrected.increment(totals.corrected());
+            long duration = System.currentTimeMillis() - start;
+            log.info("Recomputed GPA of {} students in {} ms: {} corrected, {} of {} batches failed",
+                    studentIds.length, duration, totals.corrected(), totals.failedBatches(), totals.batches());
+            return GpaRecomputeResponse.builder()
+                    .students(studentIds.length)
+                    .corrected(totals.corrected())
+                    .batches(totals.batches())
+                    .failedBatches(totals.failedBatches())
+                    .durationMillis(duration)
+                    .build();
+        } finally {
+            recomputePermit.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private record Totals(int batches, int failedBatches, long corrected) {
+
+        static final Totals NONE = new Totals(0, 0, 0);
+
+        Totals plus(Totals other) {
+            return new Totals(batches + other.batches, failedBatches + other.failedBatches, corrected + other.corrected);
+        }
+    }
+
+    private final class Partition extends RecursiveTask<Totals> {
+
+        private final long[] studentIds;
+        private final int from;
+        private final int to;
+
+        Partition(long[] studentIds, int from, int to) {
+            this.studentIds = studentIds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from > batchSize) {
+                int middle = (from + to) >>> 1;
+                Partition left = new Partition(studentIds, from, middle);
+                left.fork();
+                Totals right = new Partition(studentIds, middle, to).compute();
+                return right.plus(left.join());
+            }
+            // Ids are sorted and distinct, so the ranges of two parts never overlap
+            long fromId = studentIds[from];
+            long toId = studentIds[to - 1];
+            try {
+                return new Totals(1, 0, gradeRepository.recomputeSums(fromId, toId));
+            } catch (RuntimeException e) {
+                log.warn("Could not recompute GPA of students {}..{}", fromId, toId, e);
+                return new Totals(1, 1, 0);
+            }
+        }
+    }
+}
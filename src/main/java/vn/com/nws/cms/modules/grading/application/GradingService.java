@@ -0,0 +1,110 @@
+package vn.com.nws.cms.modules.grading.application;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vn.com.nws.cms.common.exception.BusinessException;
+import vn.com.nws.cms.modules.enrollment.domain.model.CourseSection;
+import vn.com.nws.cms.modules.enrollment.domain.repository.CourseSectionRepository;
+import vn.com.nws.cms.modules.grading.api.dto.GpaResponse;
+import vn.com.nws.cms.modules.grading.api.dto.GradeEntryRequest;
+import vn.com.nws.cms.modules.grading.api.dto.GradeEntryResponse;
+import vn.com.nws.cms.modules.grading.api.dto.TranscriptResponse;
+import vn.com.nws.cms.modules.grading.domain.model.GpaSummary;
+import vn.com.nws.cms.modules.grading.domain.model.GradeScale;
+import vn.com.nws.cms.modules.grading.infrastructure.GradeRepository;
+import vn.com.nws.cms.modules.grading.infrastructure.GradeRepository.GradeChanges;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Grade entry and transcripts (FUNCTIONAL_SPEC §4). Each grade change moves the student's materialized
+ * GPA sums in the same transaction, so reading a GPA is a single-row lookup however many grades the
+ * student has; {@link GpaRecomputer} rebuilds the sums from scratch when needed.
+ */
+@Service
+public class GradingService {
+
+    private final GradeRepository gradeRepository;
+    private final CourseSectionRepository sectionRepository;
+    private final Counter recorded;
+    private final Counter amended;
+
+    public GradingService(GradeRepository gradeRepository,
+                          CourseSectionRepository sectionRepository,
+                          MeterRegistry meterRegistry) {
+        this.gradeRepository = gradeRepository;
+        this.sectionRepository = sectionRepository;
+        this.recorded = Counter.builder("grading.grades").tag("result", "recorded").register(meterRegistry);
+        this.amended = Counter.builder("grading.grades").tag("result", "amended").register(meterRegistry);
+    }
+
+    public GradeEntryResponse recordGrades(long sectionId, String gradedBy, GradeEntryRequest request) {
+        CourseSection section = sectionRepository.findById(sectionId)
+                .orElseThrow(() -> new BusinessException("Section not found"));
+        Set<String> usernames = new HashSet<>();
+        for (GradeEntryRequest.Entry entry : request.getGrades()) {
+            if (!usernames.add(entry.getUsername())) {
+                throw new BusinessException("Duplicate grade for " + entry.getUsername());
+            }
+        }
+        Map<String, Long> ids = gradeRepository.findEnrolledStudentIds(sectionId, usernames);
+        if (ids.size() < usernames.size()) {
+            usernames.removeAll(ids.keySet());
+            throw new BusinessException("Not enrolled in this section: " + String.join(", ", usernames));
+        }
+
+        // Ascending ids: concurrent entries lock the same students in the same order
+        TreeMap<Long, Integer> scores = new TreeMap<>();
+        for (GradeEntryRequest.Entry entry : request.getGrades()) {
+            scores.put(ids.get(entry.getUsername()), entry.getScore().movePointRight(1).intValueExact());
+        }
+        long[] studentIds = scores.keySet().stream().mapToLong(Long::longValue).toArray();
+        int[] studentScores = scores.values().stream().mapToInt(Integer::intValue).toArray();
+        GradeChanges changes = gradeRepository.applyGrades(sectionId, section.getCredits(), gradedBy, studentIds, studentScores);
+        recorded.increment(changes.recorded());
+        amended.increment(changes.amended());
+        return GradeEntryResponse.builder()
+                .recorded(changes.recorded())
+                .amended(changes.amended())
+                .unchanged(changes.unchanged())
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public GpaResponse gpa(String username) {
+        GpaSummary summary = gradeRepository.findSummary(username);
+        return GpaResponse.builder()
+                .credits(summary.credits())
+                .gpa(summary.gpa())
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public TranscriptResponse transcript(String username) {
+        GpaSummary summary = gradeRepository.findSummary(username);
+        List<TranscriptResponse.Entry> grades = gradeRepository.findTranscript(username).stream()
+                .map(row -> TranscriptResponse.Entry.builder()
+                        .semester(row.semester())
+                        .courseCode(row.courseCode())
+                        .sectionCode(row.sectionCode())
+                        .credits(row.credits())
+                        .score(BigDecimal.valueOf(row.score(), 1))
+                        .gradePoint(BigDecimal.valueOf(GradeScale.gradePoints(row.score()), 1))
+                        .letter(GradeScale.letter(row.score()))
+                        .gradedAt(row.gradedAt())
+                        .build())
+                .toList();
+        return TranscriptResponse.builder()
+                .credits(summary.credits())
+                .gpa(summary.gpa())
+                .grades(grades)
+                .build();
+    }
+}
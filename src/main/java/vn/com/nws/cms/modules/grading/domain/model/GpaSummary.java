@@ -0,0 +1,20 @@
+package vn.com.nws.cms.modules.grading.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * A student's running GPA sums: graded credits and quality points (credits x grade point, in tenths).
+ */
+public record GpaSummary(int credits, long qualityPoints) {
+
+    public static final GpaSummary EMPTY = new GpaSummary(0, 0);
+
+    /** Credit-weighted average on the 4-point scale, two decimals; zero before the first grade. */
+    public BigDecimal gpa() {
+        if (credits == 0) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        return BigDecimal.valueOf(qualityPoints).divide(BigDecimal.valueOf(credits * 10L), 2, RoundingMode.HALF_UP);
+    }
+}
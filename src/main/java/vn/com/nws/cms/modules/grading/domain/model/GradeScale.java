@@ -0,0 +1,58 @@
+package vn.com.nws.cms.modules.grading.domain.model;
+
+import java.util.List;
+
+/**
+ * Conversion of a course score on the 10-point scale to a letter grade and a grade point on the 4-point
+ * scale (FUNCTIONAL_SPEC §4.2). Both sides are integers in tenths, so sums stay exact: a score of 7.5 is
+ * {@code 75} and maps to grade point 3.0, i.e. {@code 30}.
+ */
+public final class GradeScale {
+
+    public static final int MAX_SCORE = 100;
+    /** Letter grades, best first; {@link #band} indexes into this list. */
+    public static final List<String> LETTERS = List.of("A", "B+", "B", "C+", "C", "D+", "D", "F");
+
+    // Lower bound of each band, aligned with LETTERS
+    private static final int[] THRESHOLDS = {85, 80, 70, 65, 55, 50, 40, 0};
+    private static final int[] GRADE_POINTS = {40, 35, 30, 25, 20, 15, 10, 0};
+
+    private GradeScale() {
+    }
+
+    /**
+     * @param score 0..100, tenths of a point on the 10-point scale
+     * @return 0..40, tenths of a grade point on the 4-point scale
+     */
+    public static int gradePoints(int score) {
+        return GRADE_POINTS[band(score)];
+    }
+
+    public static String letter(int score) {
+        return LETTERS.get(band(score));
+    }
+
+    /** Whether the score earns the course's credits, i.e. is not an F. */
+    public static boolean passed(int score) {
+        return gradePoints(score) > 0;
+    }
+
+    /** What a grade adds to a student's quality points: credits x grade point. */
+    public static long qualityPoints(int credits, int score) {
+        return (long) credits * gradePoints(score);
+    }
+
+    /**
+     * @return the index of the score's letter in {@link #LETTERS}
+     */
+    public static int band(int score) {
+        if (score < 0 || score > MAX_SCORE) {
+            throw new IllegalArgumentException("Score out of range: " + score);
+        }
+        int band = 0;
+        while (score < THRESHOLDS[band]) {
+            band++;
+        }
+        return band;
+    }
+}
@@ -0,0 +1,237 @@
+package vn.com.nws.cms.modules.grading.infrastructure;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import vn.com.nws.cms.modules.grading.domain.model.GpaSummary;
+import vn.com.nws.cms.modules.grading.domain.model.GradeScale;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based JDBC access to {@code grades} and the running sums in {@code student_gpa}. Every writer locks
+ * the affected {@code student_gpa} rows first, in student id order, so an incremental update and a
+ * recomputation of the same student serialize and neither can overwrite the other's result.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GradeRepository {
+
+    private static final String SELECT_ENROLLED = """
+            SELECT u.username, u.id
+            FROM enrollments e
+            JOIN users u ON u.id = e.student_id
+            WHERE e.section_id = ? AND u.username = ANY(?)
+            """;
+    private static final String CREATE_SUMS = """
+            INSERT INTO student_gpa (student_id)
+            SELECT unnest(?::bigint[])
+            ON CONFLICT DO NOTHING
+            """;
+    private static final String LOCK_SUMS = "SELECT student_id FROM student_gpa WHERE student_id = ANY(?) ORDER BY student_id FOR UPDATE";
+    private static final String SELECT_SECTION_GRADES = "SELECT student_id, credits, score FROM grades WHERE section_id = ? AND student_id = ANY(?)";
+    private static final String UPSERT_GRADES = """
+            INSERT INTO grades (section_id, student_id, credits, score, graded_by, graded_at)
+            SELECT ?, g.student_id, ?, g.score, ?, now()
+            FROM unnest(?::bigint[], ?::smallint[]) AS g(student_id, score)
+            ON CONFLICT (section_id, student_id) DO UPDATE
+            SET credits = EXCLUDED.credits, score = EXCLUDED.score, graded_by = EXCLUDED.graded_by, graded_at = EXCLUDED.graded_at
+            """;
+    private static final String ADD_TO_SUMS = """
+            UPDATE student_gpa s
+            SET credits = s.credits + d.credits, quality_points = s.quality_points + d.quality_points, updated_at = now()
+            FROM unnest(?::bigint[], ?::int[], ?::bigint[]) AS d(student_id, credits, quality_points)
+            WHERE s.student_id = d.student_id
+            """;
+    private static final String SELECT_STUDENTS = "SELECT student_id FROM grades UNION SELECT student_id FROM student_gpa ORDER BY 1";
+    private static final String CREATE_SUMS_IN_RANGE = """
+            INSERT INTO student_gpa (student_id)
+            SELECT DISTINCT student_id FROM grades WHERE student_id BETWEEN ? AND ?
+            ON CONFLICT DO NOTHING
+            """;
+    private static final String LOCK_SUMS_IN_RANGE = "SELECT student_id FROM student_gpa WHERE student_id BETWEEN ? AND ? ORDER BY student_id FOR UPDATE";
+    private static final String SELECT_GRADES_IN_RANGE = "SELECT student_id, credits, score FROM grades WHERE student_id BETWEEN ? AND ?";
+    private static final String SET_SUMS = """
+            UPDATE student_gpa s
+            SET credits = d.credits, quality_points = d.quality_points, updated_at = now()
+            FROM unnest(?::bigint[], ?::int[], ?::bigint[]) AS d(student_id, credits, quality_points)
+            WHERE s.student_id = d.student_id AND (s.credits <> d.credits OR s.quality_points <> d.quality_points)
+            """;
+    private static final String SELECT_SUMMARY = """
+            SELECT g.credits, g.quality_points
+            FROM student_gpa g
+            JOIN users u ON u.id = g.student_id
+            WHERE u.username = ?
+            """;
+    private static final String SELECT_TRANSCRIPT = """
+            SELECT s.semester, s.course_code, s.section_code, g.credits, g.score, g.graded_at
+            FROM grades g
+            JOIN users u ON u.id = g.student_id
+            JOIN course_sections s ON s.id = g.section_id
+            WHERE u.username = ?
+            ORDER BY s.semester, s.course_code, s.section_code
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return username to student id, for the given students that are enrolled in the section
+     */
+    public Map<String, Long> findEnrolledStudentIds(long sectionId, Collection<String> usernames) {
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_ENROLLED);
+            ps.setLong(1, sectionId);
+            ps.setArray(2, connection.createArrayOf("text", usernames.toArray()));
+            return ps;
+        }, (RowCallbackHandler) rs -> ids.put(rs.getString(1), rs.getLong(2)));
+        return ids;
+    }
+
+    /**
+     * Enters or amends the grades of one section and moves each student's running sums by the difference
+     * the change makes. Grades that do not change are left untouched.
+     *
+     * @param studentIds ascending
+     * @param scores     aligned with {@code studentIds}, see {@link GradeScale}
+     */
+    @Transactional
+    public GradeChanges applyGrades(long sectionId, int credits, String gradedBy, long[] studentIds, int[] scores) {
+        lockSums(studentIds);
+        Map<Long, int[]> previous = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_SECTION_GRADES);
+            ps.setLong(1, sectionId);
+            ps.setArray(2, bigintArray(connection, studentIds));
+            return ps;
+        }, (RowCallbackHandler) rs -> previous.put(rs.getLong(1), new int[]{rs.getInt(2), rs.getInt(3)}));
+
+        int n = 0;
+        long[] changedIds = new long[studentIds.length];
+        int[] changedScores = new int[studentIds.length];
+        int[] creditDeltas = new int[studentIds.length];
+        long[] pointDeltas = new long[studentIds.length];
+        int amended = 0;
+        for (int i = 0; i < studentIds.length; i++) {
+            int[] old = previous.get(studentIds[i]);
+            if (old != null && old[0] == credits && old[1] == scores[i]) {
+                continue;
+            }
+            changedIds[n] = studentIds[i];
+            changedScores[n] = scores[i];
+            creditDeltas[n] = credits - (old != null ? old[0] : 0);
+            pointDeltas[n] = GradeScale.qualityPoints(credits, scores[i]) - (old != null ? GradeScale.qualityPoints(old[0], old[1]) : 0);
+            if (old != null) {
+                amended++;
+            }
+            n++;
+        }
+        if (n > 0) {
+            long[] ids = Arrays.copyOf(changedIds, n);
+            int[] newScores = Arrays.copyOf(changedScores, n);
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(UPSERT_GRADES);
+                ps.setLong(1, sectionId);
+                ps.setInt(2, credits);
+                ps.setString(3, gradedBy);
+                ps.setArray(4, bigintArray(connection, ids));
+                ps.setArray(5, intArray(connection, "smallint", newScores));
+                return ps;
+            });
+            updateSums(ADD_TO_SUMS, ids, Arrays.copyOf(creditDeltas, n), Arrays.copyOf(pointDeltas, n));
+        }
+        return new GradeChanges(n - amended, amended, studentIds.length - n);
+    }
+
+    /**
+     * @return ids of every student with a grade or a row of sums, ascending
+     */
+    public long[] findStudentIds() {
+        return jdbcTemplate.queryForList(SELECT_STUDENTS, Long.class).stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Recomputes the sums of the students with ids in {@code [fromId, toId]} from their grades and writes
+     * them in one statement.
+     *
+     * @return the number of students whose stored sums were wrong
+     */
+    @Transactional
+    public int recomputeSums(long fromId, long toId) {
+        jdbcTemplate.update(CREATE_SUMS_IN_RANGE, fromId, toId);
+        long[] ids = jdbcTemplate.queryForList(LOCK_SUMS_IN_RANGE, Long.class, fromId, toId).stream()
+                .mapToLong(Long::longValue).toArray();
+        int[] credits = new int[ids.length];
+        long[] qualityPoints = new long[ids.length];
+        jdbcTemplate.query(SELECT_GRADES_IN_RANGE, (RowCallbackHandler) rs -> {
+            int i = Arrays.binarySearch(ids, rs.getLong(1));
+            // A student first graded after the lock is covered by that grade entry
+            if (i >= 0) {
+                credits[i] += rs.getInt(2);
+                qualityPoints[i] += GradeScale.qualityPoints(rs.getInt(2), rs.getInt(3));
+            }
+        }, fromId, toId);
+        return ids.length == 0 ? 0 : updateSums(SET_SUMS, ids, credits, qualityPoints);
+    }
+
+    /** One primary-key read of the materialized sums. */
+    public GpaSummary findSummary(String username) {
+        List<GpaSummary> rows = jdbcTemplate.query(SELECT_SUMMARY,
+                (rs, rowNum) -> new GpaSummary(rs.getInt(1), rs.getLong(2)), username);
+        return rows.isEmpty() ? GpaSummary.EMPTY : rows.getFirst();
+    }
+
+    public List<GradeRow> findTranscript(String username) {
+        return jdbcTemplate.query(SELECT_TRANSCRIPT, (rs, rowNum) -> new GradeRow(rs.getString(1), rs.getString(2),
+                rs.getString(3), rs.getInt(4), rs.getInt(5), rs.getTimestamp(6).toInstant()), username);
+    }
+
+    private void lockSums(long[] studentIds) {
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(CREATE_SUMS);
+            ps.setArray(1, bigintArray(connection, studentIds));
+            return ps;
+        });
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(LOCK_SUMS);
+            ps.setArray(1, bigintArray(connection, studentIds));
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+        });
+    }
+
+    private int updateSums(String sql, long[] studentIds, int[] credits, long[] qualityPoints) {
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setArray(1, bigintArray(connection, studentIds));
+            ps.setArray(2, intArray(connection, "int", credits));
+            ps.setArray(3, bigintArray(connection, qualityPoints));
+            return ps;
+        });
+    }
+
+    private static java.sql.Array bigintArray(Connection connection, long[] values) throws SQLException {
+        return connection.createArrayOf("bigint", Arrays.stream(values).boxed().toArray());
+    }
+
+    private static java.sql.Array intArray(Connection connection, String type, int[] values) throws SQLException {
+        return connection.createArrayOf(type, Arrays.stream(values).boxed().toArray());
+    }
+
+    public record GradeChanges(int recorded, int amended, int unchanged) {
+    }
+
+    public record GradeRow(String semester, String courseCode, String sectionCode, int credits, int score,
+                           Instant gradedAt) {
+    }
+}
@@ -0,0 +1,34 @@
+package vn.com.nws.cms.modules.reporting.api;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import vn.com.nws.cms.common.dto.ApiResponse;
+import vn.com.nws.cms.modules.reporting.api.dto.ReportResponse;
+import vn.com.nws.cms.modules.reporting.application.ReportService;
+
+/**
+ * Report rollups; {@code asOf} in each response is when the numbers were last refreshed.
+ */
+@RestController
+@RequestMapping("/api/admin/reports")
+@RequiredArgsConstructor
+public class ReportController {
+
+    private final ReportService reportService;
+
+    @GetMapping("/semesters")
+    public ResponseEntity<ApiResponse<ReportResponse>> semesters() {
+        return ResponseEntity.ok(ApiResponse.success(reportService.semesters()));
+    }
+
+    @GetMapping("/semesters/{semester}/courses")
+    public ResponseEntity<ApiResponse<ReportResponse>> courses(@PathVariable String semester) {
+        return ResponseEntity.ok(ApiResponse.success(reportService.courses(semester)));
+    }
+
+    @GetMapping("/semesters/{semester}/courses/{courseCode}/sections")
+    public ResponseEntity<ApiResponse<ReportResponse>> sections(@PathVariable String semester, @PathVariable String courseCode) {
+        return ResponseEntity.ok(ApiResponse.success(reportService.sections(semester, courseCode)));
+    }
+}
@@ -0,0 +1,18 @@
+package vn.com.nws.cms.modules.reporting.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportResponse {
+    private Instant asOf;
+    private List<ReportRow> rows;
+}
@@ -0,0 +1,26 @@
+package vn.com.nws.cms.modules.reporting.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportRow {
+    private String semester;
+    private String courseCode;  // null on semester rows
+    private String sectionCode; // null on semester and course rows
+    private int sections;
+    private long capacity;
+    private long enrolled;
+    private long graded;
+    private long passed;
+    private BigDecimal passRate; // percent of graded students; null before the first grade
+    private Map<String, Long> gradeDistribution;
+}
@@ -0,0 +1,170 @@
+package vn.com.nws.cms.modules.reporting.application;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.com.nws.cms.common.exception.ServiceUnavailableException;
+import vn.com.nws.cms.modules.reporting.domain.model.RollupTable;
+import vn.com.nws.cms.modules.reporting.domain.model.RollupTable.SectionRollup;
+import vn.com.nws.cms.modules.reporting.infrastructure.RollupSource;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the {@link RollupTable} behind the report endpoints current. Every {@code reporting.refresh-interval}
+ * it reloads only the sections whose counters can have moved: those still taking or confirming
+ * registrations, and those with grades entered since the previous refresh. Once every
+ * {@code reporting.full-refresh-interval} it reloads everything, which also picks up changes made
+ * outside the application. All reads run in read-only transactions, i.e. on a replica when configured.
+ * The table is written to {@code reporting.snapshot-path} after each refresh and read back at startup, so
+ * a restarted node serves reports immediately and only catches up incrementally.
+ */
+@Component
+@Slf4j
+public class ReportRollups implements DisposableBean {
+
+    private static final long RETRY_AFTER_SECONDS = 5;
+
+    private final RollupSource rollupSource;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Path snapshotPath;
+    private final Duration registrationGrace;
+    private final Duration refreshOverlap;
+    private final Duration fullRefreshInterval;
+    private final Timer incrementalTimer;
+    private final Timer fullTimer;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile RollupTable table;
+
+    public ReportRollups(RollupSource rollupSource,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${reporting.snapshot-path:data/report-rollups.bin}") Path snapshotPath,
+                         @Value("${reporting.registration-grace:2d}") Duration registrationGrace,
+                         @Value("${reporting.refresh-overlap:5m}") Duration refreshOverlap,
+                         @Value("${reporting.full-refresh-interval:24h}") Duration fullRefreshInterval) {
+        this.rollupSource = rollupSource;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.snapshotPath = snapshotPath;
+        this.registrationGrace = registrationGrace;
+        this.refreshOverlap = refreshOverlap;
+        this.fullRefreshInterval = fullRefreshInterval;
+        this.incrementalTimer = Timer.builder("reporting.refresh").tag("type", "incremental").register(meterRegistry);
+        this.fullTimer = Timer.builder("reporting.refresh").tag("type", "full").register(meterRegistry);
+        Gauge.builder("reporting.rollups.sections", this, r -> r.table != null ? r.table.size() : 0).register(meterRegistry);
+        Gauge.builder("reporting.rollups.age", this, ReportRollups::ageSeconds).baseUnit("seconds").register(meterRegistry);
+    }
+
+    public RollupTable current() {
+        RollupTable current = table;
+        if (current == null) {
+            throw new ServiceUnavailableException("Reports are loading, retry shortly", RETRY_AFTER_SECONDS);
+        }
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        table = readSnapshot();
+        refresh();
+    }
+
+    @Scheduled(initialDelayString = "${reporting.refresh-interval:1m}",
+            fixedDelayString = "${reporting.refresh-interval:1m}")
+    public void refresh() {
+        // Not synchronized, see VIRTUAL_THREADS.md 2.1
+        if (!refreshLock.tryLock()) {
+            return;
+        }
+        try {
+            Instant start = Instant.now();
+            RollupTable current = table;
+            // A table older than the grace may have missed registrations confirmed after their section closed
+            if (current == null || current.fullRefreshAt().isBefore(start.minus(fullRefreshInterval))
+                    || current.refreshedAt().isBefore(start.minus(registrationGrace))) {
+                List<SectionRollup> rows = fullTimer.record(() -> readOnlyTransaction.execute(status -> rollupSource.loadAll()));
+                table = RollupTable.of(rows, start);
+                log.info("Loaded report rollups of {} sections", rows.size());
+            } else {
+                // The overlap covers grades committed after the previous refresh read them but stamped before it
+                List<SectionRollup> rows = incrementalTimer.record(() -> readOnlyTransaction.execute(status -> rollupSource.load(
+                        rollupSource.findChangedSectionIds(start.minus(registrationGrace), current.refreshedAt().minus(refreshOverlap)))));
+                table = current.with(rows, start);
+            }
+            writeSnapshot(table);
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh report rollups", e);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        RollupTable current = table;
+        if (current != null) {
+            writeSnapshot(current);
+        }
+    }
+
+    private RollupTable readSnapshot() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            RollupTable snapshot = RollupTable.readFrom(in);
+            log.info("Read report rollups of {} sections from {}, refreshed at {}", snapshot.size(), snapshotPath, snapshot.refreshedAt());
+            return snapshot;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable report snapshot {}", snapshotPath, e);
+            return null;
+        }
+    }
+
+    /** Writes to a temporary file and renames it, so a crash never leaves a truncated snapshot behind. */
+    private void writeSnapshot(RollupTable snapshot) {
+        try {
+            Path directory = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, snapshotPath.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                    snapshot.writeTo(out);
+                    out.flush();
+                }
+                Files.move(temporary, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            log.warn("Could not write report snapshot {}", snapshotPath, e);
+        }
+    }
+
+    private double ageSeconds() {
+        RollupTable current = table;
+        return current != null ? Duration.between(current.refreshedAt(), Instant.now()).toSeconds() : 0;
+    }
+}
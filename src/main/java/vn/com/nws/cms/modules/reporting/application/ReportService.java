@@ -0,0 +1,68 @@
+package vn.com.nws.cms.modules.reporting.application;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import vn.com.nws.cms.modules.grading.domain.model.GradeScale;
+import vn.com.nws.cms.modules.reporting.api.dto.ReportResponse;
+import vn.com.nws.cms.modules.reporting.api.dto.ReportRow;
+import vn.com.nws.cms.modules.reporting.domain.model.RollupTable;
+import vn.com.nws.cms.modules.reporting.domain.model.RollupTable.Rollup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Enrollment, pass-rate and grade-distribution reports (FUNCTIONAL_SPEC §5). Answered entirely from the
+ * in-memory {@link ReportRollups}; no request touches the database.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReportService {
+
+    private final ReportRollups reportRollups;
+
+    public ReportResponse semesters() {
+        return report(RollupTable::bySemester);
+    }
+
+    public ReportResponse courses(String semester) {
+        return report(table -> table.byCourse(semester));
+    }
+
+    public ReportResponse sections(String semester, String courseCode) {
+        return report(table -> table.bySection(semester, courseCode));
+    }
+
+    private ReportResponse report(Function<RollupTable, List<Rollup>> query) {
+        RollupTable table = reportRollups.current();
+        return ReportResponse.builder()
+                .asOf(table.refreshedAt())
+                .rows(query.apply(table).stream().map(ReportService::toRow).toList())
+                .build();
+    }
+
+    private static ReportRow toRow(Rollup rollup) {
+        Map<String, Long> distribution = new LinkedHashMap<>();
+        for (int band = 0; band < RollupTable.BANDS; band++) {
+            distribution.put(GradeScale.LETTERS.get(band), rollup.grades()[band]);
+        }
+        long graded = rollup.graded();
+        return ReportRow.builder()
+                .semester(rollup.semester())
+                .courseCode(rollup.courseCode())
+                .sectionCode(rollup.sectionCode())
+                .sections(rollup.sections())
+                .capacity(rollup.capacity())
+                .enrolled(rollup.enrolled())
+                .graded(graded)
+                .passed(rollup.passed())
+                .passRate(graded == 0 ? null
+                        : BigDecimal.valueOf(rollup.passed() * 100).divide(BigDecimal.valueOf(graded), 2, RoundingMode.HALF_UP))
+                .gradeDistribution(distribution)
+                .build();
+    }
+}
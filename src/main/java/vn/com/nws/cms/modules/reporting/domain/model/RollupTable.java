@@ -0,0 +1,295 @@
+package vn.com.nws.cms.modules.reporting.domain.model;
+
+import vn.com.nws.cms.modules.grading.domain.model.GradeScale;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Per-section report counters stored column-wise: one primitive array per measure, indexed by row, with
+ * semester and course codes dictionary-encoded to ints. A table is immutable; a refresh builds a new one
+ * with the changed rows replaced, so readers never lock. Rolling up by course or semester is a scan over
+ * a few int arrays, which for tens of thousands of sections takes well under a millisecond.
+ */
+public final class RollupTable {
+
+    public static final int BANDS = GradeScale.LETTERS.size();
+    private static final int SNAPSHOT_MAGIC = 0x52505431; // "RPT1"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final Instant refreshedAt;
+    private final Instant fullRefreshAt;
+    private final List<String> semesterNames;
+    private final List<String> courseNames;
+    private final long[] sectionIds; // ascending
+    private final int[] semesters;
+    private final int[] courses;
+    private final String[] sectionCodes;
+    private final int[] capacity;
+    private final int[] enrolled;
+    private final int[] grades; // row * BANDS + band
+
+    private RollupTable(Instant refreshedAt, Instant fullRefreshAt, List<String> semesterNames, List<String> courseNames,
+                        long[] sectionIds, int[] semesters, int[] courses, String[] sectionCodes, int[] capacity,
+                        int[] enrolled, int[] grades) {
+        this.refreshedAt = refreshedAt;
+        this.fullRefreshAt = fullRefreshAt;
+        this.semesterNames = semesterNames;
+        this.courseNames = courseNames;
+        this.sectionIds = sectionIds;
+        this.semesters = semesters;
+        this.courses = courses;
+        this.sectionCodes = sectionCodes;
+        this.capacity = capacity;
+        this.enrolled = enrolled;
+        this.grades = grades;
+    }
+
+    /** A table built from every section. */
+    public static RollupTable of(Collection<SectionRollup> rows, Instant refreshedAt) {
+        return build(rows, refreshedAt, refreshedAt);
+    }
+
+    /** A copy with the given sections added or replaced. */
+    public RollupTable with(Collection<SectionRollup> changed, Instant refreshedAt) {
+        Map<Long, SectionRollup> rows = new HashMap<>(sectionIds.length + changed.size());
+        for (int row = 0; row < sectionIds.length; row++) {
+            rows.put(sectionIds[row], row(row));
+        }
+        for (SectionRollup section : changed) {
+            rows.put(section.sectionId(), section);
+        }
+        return build(rows.values(), refreshedAt, fullRefreshAt);
+    }
+
+    public Instant refreshedAt() {
+        return refreshedAt;
+    }
+
+    public Instant fullRefreshAt() {
+        return fullRefreshAt;
+    }
+
+    public int size() {
+        return sectionIds.length;
+    }
+
+    public List<Rollup> bySemester() {
+        return aggregate(row -> true, row -> semesters[row], semesterNames.size(),
+                (group, row) -> new Rollup(semesterNames.get(group), null, null));
+    }
+
+    public List<Rollup> byCourse(String semester) {
+        int semesterIndex = semesterNames.indexOf(semester);
+        return aggregate(row -> semesters[row] == semesterIndex, row -> courses[row], courseNames.size(),
+                (group, row) -> new Rollup(semester, courseNames.get(group), null));
+    }
+
+    public List<Rollup> bySection(String semester, String courseCode) {
+        int semesterIndex = semesterNames.indexOf(semester);
+        int courseIndex = courseNames.indexOf(courseCode);
+        List<Rollup> result = new ArrayList<>();
+        for (int row = 0; row < sectionIds.length; row++) {
+            if (semesters[row] == semesterIndex && courses[row] == courseIndex) {
+                long[] sectionGrades = new long[BANDS];
+                for (int band = 0; band < BANDS; band++) {
+                    sectionGrades[band] = grades[row * BANDS + band];
+                }
+                result.add(new Rollup(semester, courseCode, sectionCodes[row], 1, capacity[row], enrolled[row], sectionGrades));
+            }
+        }
+        result.sort(Comparator.comparing(Rollup::label));
+        return result;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeInt(BANDS);
+        out.writeLong(refreshedAt.toEpochMilli());
+        out.writeLong(fullRefreshAt.toEpochMilli());
+        writeStrings(out, semesterNames);
+        writeStrings(out, courseNames);
+        out.writeInt(sectionIds.length);
+        for (long id : sectionIds) {
+            out.writeLong(id);
+        }
+        for (String code : sectionCodes) {
+            out.writeUTF(code);
+        }
+        for (int[] column : new int[][]{semesters, courses, capacity, enrolled, grades}) {
+            for (int value : column) {
+                out.writeInt(value);
+            }
+        }
+    }
+
+    public static RollupTable readFrom(DataInput in) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION || in.readInt() != BANDS) {
+            throw new IOException("Not a report rollup snapshot of this version");
+        }
+        Instant refreshedAt = Instant.ofEpochMilli(in.readLong());
+        Instant fullRefreshAt = Instant.ofEpochMilli(in.readLong());
+        List<String> semesterNames = readStrings(in);
+        List<String> courseNames = readStrings(in);
+        int rows = in.readInt();
+        long[] sectionIds = new long[rows];
+        for (int row = 0; row < rows; row++) {
+            sectionIds[row] = in.readLong();
+        }
+        String[] sectionCodes = new String[rows];
+        for (int row = 0; row < rows; row++) {
+            sectionCodes[row] = in.readUTF();
+        }
+        int[][] columns = {new int[rows], new int[rows], new int[rows], new int[rows], new int[rows * BANDS]};
+        for (int[] column : columns) {
+            for (int i = 0; i < column.length; i++) {
+                column[i] = in.readInt();
+            }
+        }
+        return new RollupTable(refreshedAt, fullRefreshAt, semesterNames, courseNames, sectionIds, columns[0],
+                columns[1], sectionCodes, columns[2], columns[3], columns[4]);
+    }
+
+    private SectionRollup row(int row) {
+        return new SectionRollup(sectionIds[row], semesterNames.get(semesters[row]), courseNames.get(courses[row]),
+                sectionCodes[row], capacity[row], enrolled[row], Arrays.copyOfRange(grades, row * BANDS, (row + 1) * BANDS));
+    }
+
+    private List<Rollup> aggregate(IntPredicate filter, IntUnaryOperator groupOf, int groups, Labeler labeler) {
+        int[] sections = new int[groups];
+        int[] firstRow = new int[groups];
+        long[] groupCapacity = new long[groups];
+        long[] groupEnrolled = new long[groups];
+        long[] groupGrades = new long[groups * BANDS];
+        for (int row = 0; row < sectionIds.length; row++) {
+            if (!filter.test(row)) {
+                continue;
+            }
+            int group = groupOf.applyAsInt(row);
+            if (sections[group]++ == 0) {
+                firstRow[group] = row;
+            }
+            groupCapacity[group] += capacity[row];
+            groupEnrolled[group] += enrolled[row];
+            for (int band = 0; band < BANDS; band++) {
+                groupGrades[group * BANDS + band] += grades[row * BANDS + band];
+            }
+        }
+        List<Rollup> result = new ArrayList<>();
+        for (int group = 0; group < groups; group++) {
+            if (sections[group] > 0) {
+                result.add(labeler.label(group, firstRow[group]).withCounts(sections[group], groupCapacity[group],
+                        groupEnrolled[group], Arrays.copyOfRange(groupGrades, group * BANDS, (group + 1) * BANDS)));
+            }
+        }
+        result.sort(Comparator.comparing(Rollup::label));
+        return result;
+    }
+
+    private static RollupTable build(Collection<SectionRollup> rows, Instant refreshedAt, Instant fullRefreshAt) {
+        SectionRollup[] sorted = rows.toArray(SectionRollup[]::new);
+        Arrays.sort(sorted, Comparator.comparingLong(SectionRollup::sectionId));
+        List<String> semesterNames = new ArrayList<>();
+        List<String> courseNames = new ArrayList<>();
+        Map<String, Integer> semesterCodes = new HashMap<>();
+        Map<String, Integer> courseCodes = new HashMap<>();
+        int n = sorted.length;
+        long[] sectionIds = new long[n];
+        int[] semesters = new int[n];
+        int[] courses = new int[n];
+        String[] sectionCodes = new String[n];
+        int[] capacity = new int[n];
+        int[] enrolled = new int[n];
+        int[] grades = new int[n * BANDS];
+        for (int row = 0; row < n; row++) {
+            SectionRollup section = sorted[row];
+            sectionIds[row] = section.sectionId();
+            semesters[row] = encode(section.semester(), semesterCodes, semesterNames);
+            courses[row] = encode(section.courseCode(), courseCodes, courseNames);
+            sectionCodes[row] = section.sectionCode();
+            capacity[row] = section.capacity();
+            enrolled[row] = section.enrolled();
+            System.arraycopy(section.grades(), 0, grades, row * BANDS, BANDS);
+        }
+        return new RollupTable(refreshedAt, fullRefreshAt, List.copyOf(semesterNames), List.copyOf(courseNames),
+                sectionIds, semesters, courses, sectionCodes, capacity, enrolled, grades);
+    }
+
+    private static int encode(String value, Map<String, Integer> codes, List<String> names) {
+        return codes.computeIfAbsent(value, v -> {
+            names.add(v);
+            return names.size() - 1;
+        });
+    }
+
+    private static void writeStrings(DataOutput out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static List<String> readStrings(DataInput in) throws IOException {
+        int size = in.readInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readUTF());
+        }
+        return List.copyOf(values);
+    }
+
+    /** Names a group, given one of its rows; the counts are filled in by {@link #aggregate}. */
+    @FunctionalInterface
+    private interface Labeler {
+        Rollup label(int group, int firstRow);
+    }
+
+    /**
+     * Counters of one section as read from the database; {@code grades} holds one count per
+     * {@link GradeScale#LETTERS letter}.
+     */
+    public record SectionRollup(long sectionId, String semester, String courseCode, String sectionCode,
+                                int capacity, int enrolled, int[] grades) {
+    }
+
+    /**
+     * Counters summed over a semester, a course in a semester, or a single section; the coarser
+     * levels leave the finer labels {@code null}.
+     */
+    public record Rollup(String semester, String courseCode, String sectionCode, int sections, long capacity,
+                         long enrolled, long[] grades) {
+
+        Rollup(String semester, String courseCode, String sectionCode) {
+            this(semester, courseCode, sectionCode, 0, 0, 0, new long[BANDS]);
+        }
+
+        Rollup withCounts(int sections, long capacity, long enrolled, long[] grades) {
+            return new Rollup(semester, courseCode, sectionCode, sections, capacity, enrolled, grades);
+        }
+
+        public long graded() {
+            return Arrays.stream(grades).sum();
+        }
+
+        /** Grades other than F. */
+        public long passed() {
+            return graded() - grades[BANDS - 1];
+        }
+
+        private String label() {
+            return semester + '\u0000' + (courseCode != null ? courseCode : "") + '\u0000' + (sectionCode != null ? sectionCode : "");
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package vn.com.nws.cms.modules.reporting.infrastructure;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import vn.com.nws.cms.modules.grading.domain.model.GradeScale;
+import vn.com.nws.cms.modules.reporting.domain.model.RollupTable;
+import vn.com.nws.cms.modules.reporting.domain.model.RollupTable.SectionRollup;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads per-section counters for the report rollups: one grouped query per table, over all sections or
+ * a given set. Callers run it in a read-only transaction, so it is served by a replica when one is configured.
+ */
+@Repository
+public class RollupSource {
+
+    private static final String SELECT_SECTIONS = "SELECT id, semester, course_code, section_code, capacity FROM course_sections";
+    private static final String SELECT_ENROLLED = "SELECT section_id, count(*) FROM enrollments";
+    private static final String SELECT_SCORES = "SELECT section_id, score, count(*) FROM grades";
+    private static final String SELECT_CHANGED = """
+            SELECT id FROM course_sections WHERE registration_closes_at > ?
+            UNION
+            SELECT section_id FROM grades WHERE graded_at > ?
+            """;
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RollupSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    /**
+     * Sections whose counters may have moved since {@code gradedSince}: every section still taking or
+     * confirming registrations, plus every section with a grade entered or amended after that time.
+     */
+    public long[] findChangedSectionIds(Instant registrationClosedAfter, Instant gradedSince) {
+        return jdbcTemplate.queryForList(SELECT_CHANGED, Long.class, Timestamp.from(registrationClosedAfter),
+                Timestamp.from(gradedSince)).stream().mapToLong(Long::longValue).toArray();
+    }
+
+    public List<SectionRollup> loadAll() {
+        return load(null);
+    }
+
+    /**
+     * @param sectionIds the sections to load, or {@code null} for all
+     */
+    public List<SectionRollup> load(long[] sectionIds) {
+        Map<Long, Counters> counters = new HashMap<>();
+        jdbcTemplate.query(filtered(SELECT_SECTIONS, "id", "", sectionIds), (RowCallbackHandler) rs ->
+                counters.put(rs.getLong(1), new Counters(rs.getString(2), rs.getString(3), rs.getString(4), rs.getInt(5))));
+        jdbcTemplate.query(filtered(SELECT_ENROLLED, "section_id", " GROUP BY section_id", sectionIds), (RowCallbackHandler) rs -> {
+            Counters section = counters.get(rs.getLong(1));
+            if (section != null) {
+                section.enrolled = rs.getInt(2);
+            }
+        });
+        jdbcTemplate.query(filtered(SELECT_SCORES, "section_id", " GROUP BY section_id, score", sectionIds), (RowCallbackHandler) rs -> {
+            Counters section = counters.get(rs.getLong(1));
+            if (section != null) {
+                section.grades[GradeScale.band(rs.getInt(2))] += rs.getInt(3);
+            }
+        });
+        List<SectionRollup> rows = new ArrayList<>(counters.size());
+        counters.forEach((id, section) -> rows.add(new SectionRollup(id, section.semester, section.courseCode,
+                section.sectionCode, section.capacity, section.enrolled, section.grades)));
+        return rows;
+    }
+
+    private static PreparedStatementCreator filtered(String select, String column, String suffix, long[] ids) {
+        return connection -> {
+            if (ids == null) {
+                return connection.prepareStatement(select + suffix);
+            }
+            PreparedStatement ps = connection.prepareStatement(select + " WHERE " + column + " = ANY(?)" + suffix);
+            ps.setArray(1, connection.createArrayOf("bigint", Arrays.stream(ids).boxed().toArray()));
+            return ps;
+        };
+    }
+
+    private static final class Counters {
+        final String semester;
+        final String courseCode;
+        final String sectionCode;
+        final int capacity;
+        int enrolled;
+        final int[] grades = new int[RollupTable.BANDS];
+
+        Counters(String semester, String courseCode, String sectionCode, int capacity) {
+            this.semester = semester;
+            this.courseCode = courseCode;
+            this.sectionCode = sectionCode;
+            this.capacity = capacity;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+-- Users. Ids come from a sequence stepping by the Hibernate allocation size (User.id), so the
+-- application reserves 50 ids per round trip and can batch inserts; raw SQL inserts take the default.
+CREATE SEQUENCE users_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE users (
+    id         BIGINT       NOT NULL DEFAULT nextval('users_id_seq') PRIMARY KEY,
+    username   VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    role       VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL
+);
+
+ALTER SEQUENCE users_id_seq OWNED BY users.id;
+
+-- Usernames and emails are unique regardless of case; availability and duplicate checks query lower(...)
+CREATE UNIQUE INDEX ux_users_username_lower ON users (lower(username));
+CREATE UNIQUE INDEX ux_users_email_lower ON users (lower(email));
+
+-- Login lookup (exact username -> password, role) is answered by an index-only scan
+CREATE INDEX ix_users_username_credentials ON users (username) INCLUDE (password, role);
@@ -0,0 +1,13 @@
+-- Audit trail of authentication events, written in batches by AuditLog
+CREATE TABLE audit_events (
+    id          BIGSERIAL PRIMARY KEY,
+    event_type  VARCHAR(32)  NOT NULL,
+    username    VARCHAR(255),
+    client_ip   VARCHAR(45),
+    detail      VARCHAR(255),
+    occurred_at TIMESTAMPTZ  NOT NULL
+);
+
+CREATE INDEX idx_audit_events_username ON audit_events (username, occurred_at);
+-- Rows arrive in time order, so a BRIN index covers time-range scans at a fraction of a B-tree's size
+CREATE INDEX idx_audit_events_occurred_at ON audit_events USING BRIN (occurred_at);
@@ -0,0 +1,25 @@
+-- Course sections open for registration and the students enrolled in them.
+-- Seats are reserved in Redis (EnrollmentService) and confirmed here in batches; the capacity check in
+-- EnrollmentRepository.applySeatChanges keeps this table from exceeding capacity even if Redis is wrong.
+CREATE TABLE course_sections (
+    id                     BIGSERIAL PRIMARY KEY,
+    course_code            VARCHAR(32) NOT NULL,
+    section_code           VARCHAR(16) NOT NULL,
+    semester               VARCHAR(16) NOT NULL,
+    capacity               INT         NOT NULL CHECK (capacity >= 0),
+    registration_opens_at  TIMESTAMPTZ NOT NULL,
+    registration_closes_at TIMESTAMPTZ NOT NULL,
+    CONSTRAINT ux_course_sections_code UNIQUE (semester, course_code, section_code),
+    CONSTRAINT ck_course_sections_window CHECK (registration_closes_at > registration_opens_at)
+);
+
+CREATE INDEX ix_course_sections_registration ON course_sections (registration_closes_at);
+
+CREATE TABLE enrollments (
+    section_id  BIGINT      NOT NULL REFERENCES course_sections (id),
+    student_id  BIGINT      NOT NULL REFERENCES users (id),
+    enrolled_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (section_id, student_id)
+);
+
+CREATE INDEX ix_enrollments_student ON enrollments (student_id);
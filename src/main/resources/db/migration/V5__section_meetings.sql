@@ -0,0 +1,11 @@
+-- Weekly meetings of a section: ISO day of week and an inclusive range of teaching periods (1-16),
+-- the granularity of the schedule clash check (WeeklySlots).
+CREATE TABLE section_meetings (
+    section_id   BIGINT NOT NULL REFERENCES course_sections (id) ON DELETE CASCADE,
+    day_of_week  INT    NOT NULL CHECK (day_of_week BETWEEN 1 AND 7),
+    first_period INT    NOT NULL CHECK (first_period BETWEEN 1 AND 16),
+    last_period  INT    NOT NULL,
+    CONSTRAINT ck_section_meetings_periods CHECK (last_period BETWEEN first_period AND 16)
+);
+
+CREATE INDEX ix_section_meetings_section ON section_meetings (section_id);
@@ -0,0 +1,27 @@
+-- Grades and the per-student GPA sums they roll up into (FUNCTIONAL_SPEC §4).
+-- Existing sections predate credits; 3 is the usual load and can be corrected before grading.
+ALTER TABLE course_sections ADD COLUMN credits SMALLINT NOT NULL DEFAULT 3 CHECK (credits BETWEEN 1 AND 10);
+ALTER TABLE course_sections ALTER COLUMN credits DROP DEFAULT;
+
+-- Scores are kept in tenths (0..100 for 0.0..10.0). Credits are copied from the section when the grade
+-- is entered, so a grade always contributes to the GPA with the weight it was entered with.
+CREATE TABLE grades (
+    section_id BIGINT      NOT NULL REFERENCES course_sections (id),
+    student_id BIGINT      NOT NULL REFERENCES users (id),
+    credits    SMALLINT    NOT NULL CHECK (credits > 0),
+    score      SMALLINT    NOT NULL CHECK (score BETWEEN 0 AND 100),
+    graded_by  VARCHAR(255) NOT NULL,
+    graded_at  TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (section_id, student_id)
+);
+
+CREATE INDEX ix_grades_student ON grades (student_id);
+
+-- Running sums maintained by GradeRepository on every grade change; quality_points is the sum of
+-- credits x grade point in tenths of the 4-point scale. GPA = quality_points / credits / 10.
+CREATE TABLE student_gpa (
+    student_id     BIGINT      PRIMARY KEY REFERENCES users (id),
+    credits        INT         NOT NULL DEFAULT 0,
+    quality_points BIGINT      NOT NULL DEFAULT 0,
+    updated_at     TIMESTAMPTZ NOT NULL DEFAULT now()
+);
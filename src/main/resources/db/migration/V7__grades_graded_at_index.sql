@@ -0,0 +1,2 @@
+-- Lets the report refresh find recently entered or amended grades without scanning the table.
+CREATE INDEX ix_grades_graded_at ON grades (graded_at);
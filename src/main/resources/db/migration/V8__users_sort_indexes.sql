@@ -0,0 +1,7 @@
+-- Keyset pages sorted by username or email seek on the raw column, which the lower(...) indexes cannot
+-- serve. Both columns are already unique through those indexes, so plain unique ones cannot fail here.
+CREATE UNIQUE INDEX ux_users_email ON users (email);
+
+-- The login covering index becomes unique so it also serves the username sort
+CREATE UNIQUE INDEX ux_users_username_credentials ON users (username) INCLUDE (password, role);
+DROP INDEX ix_users_username_credentials;
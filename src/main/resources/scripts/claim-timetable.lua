@@ -0,0 +1,38 @@
+-- Atomically adds a section to a student's timetable for one semester unless it clashes with one held there.
+-- KEYS[1] = enroll:timetable:<semester>:<username>, a hash of section id -> day masks
+-- Day masks: 7 comma-separated 16-bit integers, Monday first, bit (period - 1) set for every period taught.
+-- ARGV[1] = section id, ARGV[2] = its day masks, ARGV[3] = expiry (epoch millis)
+-- ARGV[4..] = (section id, day masks) pairs to seed the timetable with when it does not exist yet
+-- Returns 1 added, 0 already held, or minus the id of the held section it clashes with.
+local function extend()
+    if redis.call('PEXPIRETIME', KEYS[1]) < tonumber(ARGV[3]) then
+        redis.call('PEXPIREAT', KEYS[1], ARGV[3])
+    end
+end
+
+if #ARGV > 3 and redis.call('EXISTS', KEYS[1]) == 0 then
+    for i = 4, #ARGV, 2 do
+        redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+    end
+    extend()
+end
+if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 1 then
+    return 0
+end
+local wanted = {}
+for mask in string.gmatch(ARGV[2], '%d+') do
+    wanted[#wanted + 1] = tonumber(mask)
+end
+local held = redis.call('HGETALL', KEYS[1])
+for i = 1, #held, 2 do
+    local day = 1
+    for mask in string.gmatch(held[i + 1], '%d+') do
+        if bit.band(tonumber(mask), wanted[day]) ~= 0 then
+            return -tonumber(held[i])
+        end
+        day = day + 1
+    end
+end
+redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+extend()
+return 1
@@ -0,0 +1,14 @@
+-- Seeds a section's seat counter unless it is already loaded.
+-- KEYS[1] = enroll:capacity:{sectionId}, KEYS[2] = enroll:seats:{sectionId}
+-- ARGV[1] = capacity, ARGV[2] = expiry (epoch millis), ARGV[3..] = usernames holding a seat
+-- Returns 1 if loaded, 0 if the section was already present.
+if not redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PXAT', ARGV[2]) then
+    return 0
+end
+redis.call('DEL', KEYS[2])
+-- SADD in chunks to stay below Lua's limit on unpacked arguments
+for i = 3, #ARGV, 1000 do
+    redis.call('SADD', KEYS[2], unpack(ARGV, i, math.min(i + 999, #ARGV)))
+end
+redis.call('PEXPIREAT', KEYS[2], ARGV[2])
+return 1
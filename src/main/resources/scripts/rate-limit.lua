@@ -0,0 +1,19 @@
+-- Applies one node's consumption to the shared token bucket and returns the tokens left.
+-- KEYS[1] = auth:ratelimit:{bucket}
+-- ARGV[1] = capacity, ARGV[2] = refill per millisecond, ARGV[3] = tokens consumed on the node since its last sync
+-- Time comes from the Redis server so node clock skew does not matter. The balance may go below zero
+-- (nodes admit locally between syncs) but not below -capacity, which bounds how long a burst is punished.
+local capacity = tonumber(ARGV[1])
+local rate = tonumber(ARGV[2])
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+local tokens = tonumber(state[1]) or capacity
+local ts = tonumber(state[2]) or now
+if now > ts then
+    tokens = math.min(capacity, tokens + (now - ts) * rate)
+end
+tokens = math.max(-capacity, tokens - tonumber(ARGV[3]))
+redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))
+redis.call('PEXPIRE', KEYS[1], math.ceil((capacity - tokens) / rate) + 1000)
+return tostring(tokens)
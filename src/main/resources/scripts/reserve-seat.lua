@@ -0,0 +1,21 @@
+-- Atomically takes a seat in a section.
+-- KEYS[1] = enroll:capacity:{sectionId}, KEYS[2] = enroll:seats:{sectionId} (set of usernames)
+-- ARGV[1] = username
+-- Returns 1 reserved, 0 already held, -1 full, -2 section not loaded.
+local capacity = redis.call('GET', KEYS[1])
+if not capacity then
+    return -2
+end
+if redis.call('SISMEMBER', KEYS[2], ARGV[1]) == 1 then
+    return 0
+end
+local taken = redis.call('SCARD', KEYS[2])
+if taken >= tonumber(capacity) then
+    return -1
+end
+redis.call('SADD', KEYS[2], ARGV[1])
+if taken == 0 then
+    -- The set was just created; give it the section's expiry
+    redis.call('PEXPIRE', KEYS[2], redis.call('PTTL', KEYS[1]))
+end
+return 1
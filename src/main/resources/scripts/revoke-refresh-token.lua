@@ -0,0 +1,7 @@
+-- Deletes a refresh session only if the presented secret is the current one.
+-- KEYS[1] = auth:rt:{family}, ARGV[1] = presented secret
+local value = redis.call('GET', KEYS[1])
+if value and string.sub(value, 1, string.find(value, '|', 1, true) - 1) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
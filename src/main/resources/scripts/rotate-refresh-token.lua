@@ -0,0 +1,16 @@
+-- Atomically rotates a refresh session.
+-- KEYS[1] = auth:rt:{family}
+-- ARGV[1] = presented secret, ARGV[2] = new secret, ARGV[3] = TTL (millis)
+-- Stored value: secret|role|issuedAt|username, where issuedAt is the login time of the family.
+-- Returns the rotated value, or nil if the secret does not match.
+local value = redis.call('GET', KEYS[1])
+if not value then
+    return false
+end
+local secretEnd = string.find(value, '|', 1, true)
+if string.sub(value, 1, secretEnd - 1) ~= ARGV[1] then
+    return false
+end
+local rotated = ARGV[2] .. string.sub(value, secretEnd)
+redis.call('SET', KEYS[1], rotated, 'PX', ARGV[3])
+return rotated
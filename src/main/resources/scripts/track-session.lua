@@ -0,0 +1,13 @@
+-- Adds a refresh token family to the per-user session index and enforces the session cap.
+-- KEYS[1] = auth:sessions:{username}
+-- ARGV[1] = family, ARGV[2] = issued-at (epoch millis), ARGV[3] = index TTL (millis), ARGV[4] = max sessions
+-- Returns the families evicted to stay within the cap (oldest first).
+redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+redis.call('PEXPIRE', KEYS[1], ARGV[3])
+local overflow = redis.call('ZCARD', KEYS[1]) - tonumber(ARGV[4])
+if overflow <= 0 then
+    return {}
+end
+local evicted = redis.call('ZRANGE', KEYS[1], 0, overflow - 1)
+redis.call('ZREMRANGEBYRANK', KEYS[1], 0, overflow - 1)
+return evicted
@@ -0,0 +1,58 @@
+package vn.com.nws.cms.common.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditLogTest {
+
+    private final RecordingRepository repository = new RecordingRepository();
+    private final AuditLog auditLog = new AuditLog(repository, new SimpleMeterRegistry(), true, 1024, 500,
+            Duration.ofMillis(10), "drop", Duration.ofMillis(20), Duration.ofSeconds(5));
+
+    @Test
+    void rejectedEventDoesNotDropTheRestOfItsBatch() {
+        auditLog.start();
+        auditLog.record(AuditEventType.LOGIN_FAILED, "alice");
+        auditLog.record(AuditEventType.LOGIN_FAILED, "bob", "poison");
+        auditLog.record(AuditEventType.LOGIN_FAILED, "carol");
+        auditLog.stop();
+
+        assertThat(repository.written).extracting(AuditEvent::username).containsExactly("alice", "carol");
+    }
+
+    @Test
+    void oversizedValuesAreTruncatedToTheColumnWidth() {
+        auditLog.start();
+        auditLog.record(AuditEventType.LOGIN_FAILED, "a".repeat(254) + "😀", "d".repeat(1000));
+        auditLog.stop();
+
+        AuditEvent event = repository.written.getFirst();
+        assertThat(event.username()).isEqualTo("a".repeat(254));
+        assertThat(event.detail()).hasSize(255);
+    }
+
+    /** Rejects a whole batch when any event in it carries the detail {@code poison}, like a failing INSERT. */
+    private static final class RecordingRepository extends AuditEventRepository {
+
+        final List<AuditEvent> written = new CopyOnWriteArrayList<>();
+
+        RecordingRepository() {
+            super(null);
+        }
+
+        @Override
+        public void insertAll(List<AuditEvent> events) {
+            if (events.stream().anyMatch(e -> "poison".equals(e.detail()))) {
+                throw new DataIntegrityViolationException("value too long for type character varying(255)");
+            }
+            written.addAll(events);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package vn.com.nws.cms.common.mail;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SmtpBatchSenderTest {
+
+    private final FakeSmtpServer server = new FakeSmtpServer();
+    private SmtpBatchSender sender;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (sender != null) {
+            sender.close();
+        }
+        server.close();
+    }
+
+    @Test
+    void sendsBatchOverPooledConnectionsAndReportsRejectedRecipients() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(server.port());
+        sender = new SmtpBatchSender(mailSender, "no-reply@cms.local", 2);
+
+        Map<Long, String> failures = sender.send(List.of(
+                new OutboxEmail(1, "a@example.com", "Reset", "body 1", 1),
+                new OutboxEmail(2, "b@example.com", "Reset", "body 2", 1),
+                new OutboxEmail(3, "reject@example.com", "Reset", "body 3", 1),
+                new OutboxEmail(4, "c@example.com", "Reset", "body 4", 1),
+                new OutboxEmail(5, "d@example.com", "Reset", "body 5", 1)));
+
+        assertThat(failures).containsOnlyKeys(3L);
+        assertThat(server.recipients).containsExactlyInAnyOrder(
+                "a@example.com", "b@example.com", "c@example.com", "d@example.com");
+        assertThat(server.connections.get()).isEqualTo(2);
+    }
+
+    @Test
+    void reportsEveryEmailWhenTheServerIsUnreachable() throws IOException {
+        server.close();
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(server.port());
+        sender = new SmtpBatchSender(mailSender, "no-reply@cms.local", 1);
+
+        Map<Long, String> failures = sender.send(List.of(
+                new OutboxEmail(1, "a@example.com", "Reset", "body", 1),
+                new OutboxEmail(2, "b@example.com", "Reset", "body", 1)));
+
+        assertThat(failures).containsOnlyKeys(1L, 2L);
+    }
+
+    /**
+     * Just enough SMTP to accept messages; recipients containing "reject" get a 550.
+     */
+    private static final class FakeSmtpServer implements AutoCloseable {
+
+        private final ServerSocket socket;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final ConcurrentLinkedQueue<String> recipients = new ConcurrentLinkedQueue<>();
+
+        FakeSmtpServer() {
+            try {
+                socket = new ServerSocket(0);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            Thread.ofPlatform().daemon().start(() -> {
+                while (!socket.isClosed()) {
+                    try {
+                        Socket client = socket.accept();
+                        connections.incrementAndGet();
+                        Thread.ofPlatform().daemon().start(() -> serve(client));
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+        }
+
+        int port() {
+            return socket.getLocalPort();
+        }
+
+        private void serve(Socket client) {
+            try (client;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII));
+                 PrintWriter out = new PrintWriter(client.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+                reply(out, "220 fake-smtp");
+                String pendingRecipient = null;
+                for (String line; (line = in.readLine()) != null; ) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                        reply(out, "250 fake-smtp");
+                    } else if (command.startsWith("RCPT TO")) {
+                        if (command.contains("REJECT")) {
+                            reply(out, "550 no such user");
+                        } else {
+                            pendingRecipient = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+                            reply(out, "250 ok");
+                        }
+                    } else if (command.equals("DATA")) {
+                        reply(out, "354 go ahead");
+                        while (!".".equals(in.readLine())) {
+                            // message content is not inspected
+                        }
+                        recipients.add(pendingRecipient);
+                        reply(out, "250 queued");
+                    } else if (command.equals("QUIT")) {
+                        reply(out, "221 bye");
+                        return;
+                    } else {
+                        reply(out, "250 ok"); // MAIL FROM, RSET, NOOP
+                    }
+                }
+            } catch (IOException ignored) {
+                // client went away
+            }
+        }
+
+        private static void reply(PrintWriter out, String line) {
+            out.print(line + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
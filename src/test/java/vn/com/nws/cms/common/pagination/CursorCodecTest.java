@@ -0,0 +1,39 @@
+package vn.com.nws.cms.common.pagination;
+
+import org.junit.jupiter.api.Test;
+import vn.com.nws.cms.common.exception.BusinessException;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorCodecTest {
+
+    private final CursorCodec codec = new CursorCodec("12345678901234567890123456789012");
+
+    @Test
+    void roundTripsTypedKeys() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("username", "nguyễn|văn,a");
+        keys.put("createdAt", LocalDateTime.of(2026, 9, 1, 8, 30));
+        keys.put("id", 42L);
+
+        assertThat(codec.decode("users:username", codec.encode("users:username", keys))).isEqualTo(keys);
+    }
+
+    @Test
+    void rejectsTamperedOrForeignCursors() {
+        String cursor = codec.encode("users:id", Map.of("id", 42L));
+        char[] tampered = cursor.toCharArray();
+        tampered[3] = tampered[3] == 'A' ? 'B' : 'A';
+
+        assertThatThrownBy(() -> codec.decode("users:id", new String(tampered))).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> codec.decode("courses:id", cursor)).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> codec.decode("users:id", "not a cursor!")).isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> new CursorCodec("another-secret-another-secret-00").decode("users:id", cursor))
+                .isInstanceOf(BusinessException.class);
+    }
+}
@@ -0,0 +1,43 @@
+package vn.com.nws.cms.common.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final TokenBucket bucket = new TokenBucket(RateLimit.parse("3/3s"), 0);
+
+    @Test
+    void parsesCapacityAndPeriod() {
+        assertThat(RateLimit.parse("10/1m")).isEqualTo(new RateLimit(10, Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void admitsBurstThenReportsWaitUntilRefill() {
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isEqualTo(SECOND);
+
+        assertThat(bucket.tryConsume(SECOND / 2)).isEqualTo(SECOND / 2);
+        assertThat(bucket.tryConsume(SECOND)).isZero();
+    }
+
+    @Test
+    void adoptsGlobalBalanceMinusTokensTakenDuringSync() {
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+        assertThat(bucket.drainPending()).isEqualTo(2);
+        assertThat(bucket.drainPending()).as("untouched since the last sync").isEqualTo(-1);
+
+        bucket.tryConsume(0); // taken while the sync is in flight
+        bucket.applyGlobal(1.0, 0); // another node used the rest of the budget
+        assertThat(bucket.tryConsume(0)).isEqualTo(SECOND);
+        assertThat(bucket.drainPending()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,51 @@
+package vn.com.nws.cms.common.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import vn.com.nws.cms.common.config.JwtConfig;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingJwtDecoderTest {
+
+    private static final String SECRET = "12345678901234567890123456789012";
+
+    private final JwtConfig jwtConfig = new JwtConfig(SECRET);
+    private final AtomicInteger conversions = new AtomicInteger();
+    private final CachingJwtDecoder decoder = new CachingJwtDecoder(jwtConfig.nimbusJwtDecoder(), jwt -> {
+        conversions.incrementAndGet();
+        return new JwtGrantedAuthoritiesConverter().convert(jwt);
+    }, (digest, jwt) -> false, true, 100, Duration.ofMinutes(30), new SimpleMeterRegistry());
+
+    @Test
+    void decodedTokensCarryTheirAuthorities() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        String token = jwtConfig.jwtTokenIssuer().issue("student1", "ROLE_STUDENT", now, now.plusSeconds(3600));
+
+        Jwt first = decoder.decode(token);
+        Jwt second = decoder.decode(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(decoder.authoritiesOf(second)).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("SCOPE_ROLE_STUDENT");
+        assertThat(conversions).hasValue(1);
+    }
+
+    @Test
+    void foreignTokensAreConverted() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Jwt jwt = jwtConfig.nimbusJwtDecoder().decode(
+                jwtConfig.jwtTokenIssuer().issue("student1", "ROLE_STUDENT", now, now.plusSeconds(3600)));
+
+        assertThat(decoder.authoritiesOf(jwt)).hasSize(1);
+        assertThat(conversions).hasValue(1);
+    }
+}
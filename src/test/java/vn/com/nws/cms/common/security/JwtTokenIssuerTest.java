@@ -0,0 +1,77 @@
+package vn.com.nws.cms.common.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import vn.com.nws.cms.common.config.JwtConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenIssuerTest {
+
+    private static final String SECRET = "12345678901234567890123456789012";
+
+    private final JwtConfig jwtConfig = new JwtConfig(SECRET);
+    private final JwtTokenIssuer issuer = jwtConfig.jwtTokenIssuer();
+    private final JwtDecoder decoder = jwtConfig.nimbusJwtDecoder();
+
+    @Test
+    void issuedTokenIsAcceptedByNimbusDecoder() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        Jwt jwt = decoder.decode(issuer.issue("student1", "ROLE_STUDENT", now, now.plusSeconds(3600)));
+
+        assertThat(jwt.getSubject()).isEqualTo("student1");
+        assertThat(jwt.getIssuedAt()).isEqualTo(now);
+        assertThat(jwt.getExpiresAt()).isEqualTo(now.plusSeconds(3600));
+        assertThat(jwt.getClaimAsString("scope")).isEqualTo("ROLE_STUDENT");
+        assertThat(jwt.getHeaders()).containsOnlyKeys("alg");
+    }
+
+    @Test
+    void escapesAndEncodesNonAsciiSubjects() {
+        Instant now = Instant.now();
+        String subject = "Nguyễn \"Văn\" \\ A\n😀";
+
+        Jwt jwt = decoder.decode(issuer.issue(subject, "", now, now.plusSeconds(60)));
+
+        assertThat(jwt.getSubject()).isEqualTo(subject);
+        assertThat(jwt.getClaimAsString("scope")).isEmpty();
+    }
+
+    @Test
+    void headerMatchesNimbusEncoder() {
+        JwtProvider provider = new JwtProvider(jwtConfig.jwtEncoder(), issuer);
+        ReflectionTestUtils.setField(provider, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(provider, "fastIssuerEnabled", false);
+        Instant now = Instant.now();
+
+        String fast = issuer.issue("student1", "", now, now.plusSeconds(60));
+        String nimbus = provider.generateToken("student1");
+
+        assertThat(header(fast)).isEqualTo(header(nimbus));
+    }
+
+    @Test
+    void memoizesScopePerAuthoritySet() {
+        Set<SimpleGrantedAuthority> authorities = Set.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
+
+        String first = issuer.scopeOf(authorities);
+
+        assertThat(first).isEqualTo("ROLE_ADMIN");
+        assertThat(issuer.scopeOf(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")))).isSameAs(first);
+    }
+
+    private static String header(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,87 @@
+package vn.com.nws.cms.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OffHeapStringMapTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final OffHeapStringMap map = new OffHeapStringMap(4, 64L * 1024 * 1024, now::get);
+
+    @Test
+    void putGetReplaceAndRemove() {
+        map.put("rt:a", "secret|ROLE_STUDENT|1|tiếng việt", 1_000);
+        assertThat(map.get("rt:a")).isEqualTo("secret|ROLE_STUDENT|1|tiếng việt");
+
+        map.put("rt:a", "x".repeat(3_000), 1_000);
+        assertThat(map.get("rt:a")).hasSize(3_000);
+        assertThat(map.size()).isEqualTo(1);
+
+        assertThat(map.remove("rt:a")).isTrue();
+        assertThat(map.remove("rt:a")).isFalse();
+        assertThat(map.get("rt:a")).isNull();
+    }
+
+    @Test
+    void entriesExpire() {
+        map.put("reset:a", "student1", 100);
+        map.put("reset:b", "student2", 500);
+
+        now.addAndGet(100);
+        assertThat(map.get("reset:a")).isNull();
+        assertThat(map.get("reset:b")).isEqualTo("student2");
+
+        now.addAndGet(400);
+        assertThat(map.purgeExpired()).isEqualTo(1);
+        assertThat(map.size()).isZero();
+    }
+
+    @Test
+    void computeKeepsUntouchedEntriesAndRemovesOnNull() {
+        map.put("k", "v1", 100);
+
+        assertThat(map.compute("k", 10_000, current -> current)).isEqualTo("v1");
+        now.addAndGet(100);
+        assertThat(map.get("k")).as("returning the current value must not extend the TTL").isNull();
+
+        assertThat(map.compute("k", 100, current -> current == null ? "v2" : current + "!")).isEqualTo("v2");
+        assertThat(map.compute("k", 100, current -> null)).isNull();
+        assertThat(map.get("k")).isNull();
+    }
+
+    @Test
+    void survivesGrowthAndChunkReuse() {
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 20_000; i++) {
+                map.put("rt:" + i, "value-" + i + "-" + round, 10_000);
+            }
+            for (int i = 0; i < 20_000; i += 2) {
+                map.remove("rt:" + i);
+            }
+        }
+        long reserved = map.reservedBytes();
+        for (int i = 1; i < 20_000; i += 2) {
+            assertThat(map.get("rt:" + i)).isEqualTo("value-" + i + "-2");
+        }
+        assertThat(map.size()).isEqualTo(10_000);
+
+        for (int i = 0; i < 20_000; i += 2) {
+            map.put("rt:" + i, "value-" + i, 10_000);
+        }
+        assertThat(map.reservedBytes()).as("freed chunks are reused").isEqualTo(reserved);
+    }
+
+    @Test
+    void rejectsWritesBeyondTheMemoryLimit() {
+        OffHeapStringMap small = new OffHeapStringMap(1, 256 * 1024, now::get);
+        assertThatThrownBy(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                small.put("rt:" + i, "x".repeat(100), 10_000);
+            }
+        }).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,112 @@
+package vn.com.nws.cms.modules.auth.api;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+import vn.com.nws.cms.common.ratelimit.RateLimiter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthRateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimiter rateLimiter = new RateLimiter(null,
+            new StaticListableBeanFactory().getBeanProvider(RedisMessageListenerContainer.class),
+            meterRegistry, 1000, Duration.ofMinutes(30));
+    private final AuthRateLimitFilter filter = new AuthRateLimitFilter(rateLimiter, JsonMapper.builder().build(),
+            meterRegistry, true, "1000/1m", "2/5m", "1000/1m", "2/1m", "1000/1m", "2/15m");
+
+    @Test
+    void accountLimitAppliesWhateverTheCaseOfTheUsername() throws Exception {
+        assertThat(login("{\"username\":\"student1\",\"password\":\"x\"}").getStatus()).isEqualTo(200);
+        assertThat(login("{\"username\":\"STUDENT1\",\"password\":\"x\"}").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse response = login("{\"username\":\"Student1\",\"password\":\"x\"}");
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isNotNull();
+    }
+
+    @Test
+    void oversizeBodyIsRejectedBeforeTheController() throws Exception {
+        String padding = "x".repeat(20 * 1024);
+        String body = "{\"username\":\"student1\",\"password\":\"" + padding + "\"}";
+
+        assertThat(login(body).getStatus()).isEqualTo(413);
+
+        MockHttpServletRequest chunked = request(body);
+        chunked.removeHeader("Content-Length");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new UnknownLengthRequest(chunked), response, chain);
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void unreadableBodiesAreRejectedRatherThanSkippingTheAccountLimit() throws Exception {
+        assertThat(login("{\"username\":\"student1\",").getStatus()).isEqualTo(400);
+        assertThat(login("{\"password\":\"x\"}").getStatus()).isEqualTo(400);
+        assertThat(login("{\"username\":{\"a\":1},\"password\":\"x\"}").getStatus()).isEqualTo(400);
+        assertThat(login("").getStatus()).isEqualTo(400);
+    }
+
+    @Test
+    void nonStringUsernamesAreStillCharged() throws Exception {
+        assertThat(login("{\"username\":123,\"password\":\"x\"}").getStatus()).isEqualTo(200);
+        assertThat(login("{\"username\":\"123\",\"password\":\"x\"}").getStatus()).isEqualTo(200);
+
+        assertThat(login("{\"username\":123,\"password\":\"x\"}").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void controllerReceivesTheBufferedBody() throws Exception {
+        String body = "{\"username\":\"student1\",\"password\":\"x\"}";
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request(body), new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest().getInputStream().readAllBytes()).asString(StandardCharsets.UTF_8).isEqualTo(body);
+    }
+
+    private MockHttpServletResponse login(String body) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(body), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setServletPath("/api/auth/login");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    /** A chunked upload: the length is only known once the body has been read. */
+    private static final class UnknownLengthRequest extends HttpServletRequestWrapper {
+
+        UnknownLengthRequest(MockHttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package vn.com.nws.cms.modules.auth.application;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+import vn.com.nws.cms.modules.auth.application.UserAdminService.ExportFormat;
+import vn.com.nws.cms.modules.auth.infrastructure.UserBulkRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserAdminServiceTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 9, 1, 8, 30);
+
+    @Test
+    void csvCellsAreQuotedAndFormulasNeutralized() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service(new FixedUsers(List.of(
+                user(1, "student1", "a,b@example.com"),
+                user(2, "=HYPERLINK(\"x\")", "@evil@example.com"),
+                user(3, "-1+2", "+1@example.com")))).exportUsers(out, ExportFormat.CSV, 0);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("""
+                id,username,email,role,created_at
+                1,student1,"a,b@example.com",ROLE_STUDENT,2026-09-01T08:30
+                2,"'=HYPERLINK(""x"")",'@evil@example.com,ROLE_STUDENT,2026-09-01T08:30
+                3,'-1+2,'+1@example.com,ROLE_STUDENT,2026-09-01T08:30
+                """);
+    }
+
+    @Test
+    void resumedCsvExportHasNoHeader() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service(new FixedUsers(List.of(user(8, "student8", "s8@example.com")))).exportUsers(out, ExportFormat.CSV, 7);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("8,student8,s8@example.com,ROLE_STUDENT,2026-09-01T08:30\n");
+    }
+
+    @Test
+    void rowsReachTheClientWhileTheCursorIsStillOpen() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long[] writtenBeforeLastRow = new long[1];
+        UserBulkRepository users = new UserBulkRepository(null) {
+            @Override
+            public void forEachUserAfter(long afterId, Consumer<ExportedUser> consumer) {
+                for (long id = afterId + 1; id <= 50_000; id++) {
+                    if (id == 50_000) {
+                        writtenBeforeLastRow[0] = out.size();
+                    }
+                    consumer.accept(user(id, "student" + id, "student" + id + "@example.com"));
+                }
+            }
+        };
+
+        service(users).exportUsers(out, ExportFormat.NDJSON, 0);
+
+        assertThat(writtenBeforeLastRow[0]).isGreaterThan(out.size() - 128 * 1024);
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).hasSize(50_000)
+                .first().asString().startsWith("{\"id\":1,\"username\":\"student1\"");
+    }
+
+    private static UserAdminService service(UserBulkRepository users) {
+        return new UserAdminService(null, null, users, JsonMapper.builder().build());
+    }
+
+    private static UserBulkRepository.ExportedUser user(long id, String username, String email) {
+        return new UserBulkRepository.ExportedUser(id, username, email, "ROLE_STUDENT", CREATED_AT);
+    }
+
+    private static final class FixedUsers extends UserBulkRepository {
+
+        private final List<ExportedUser> users;
+
+        FixedUsers(List<ExportedUser> users) {
+            super(null);
+            this.users = users;
+        }
+
+        @Override
+        public void forEachUserAfter(long afterId, Consumer<ExportedUser> consumer) {
+            users.stream().filter(user -> user.id() > afterId).forEach(consumer);
+        }
+    }
+}
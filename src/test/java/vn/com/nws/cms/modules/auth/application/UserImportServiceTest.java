@@ -0,0 +1,48 @@
+package vn.com.nws.cms.modules.auth.application;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+import vn.com.nws.cms.common.exception.BusinessException;
+import vn.com.nws.cms.modules.auth.api.dto.UserImportJobResponse;
+import vn.com.nws.cms.modules.auth.api.dto.UserImportJobResponse.Status;
+import vn.com.nws.cms.modules.auth.infrastructure.UserBulkRepository;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserImportServiceTest {
+
+    private final UserImportService service = new UserImportService(new UserBulkRepository(null), null,
+            JsonMapper.builder().build(), null, null,
+            new StaticListableBeanFactory().getBeanProvider(RedisMessageListenerContainer.class),
+            new SimpleMeterRegistry(), 1, 1000, 200_000, DataSize.ofBytes(64), Duration.ofHours(1));
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void rejectedUploadDoesNotBlockTheNextImport() throws Exception {
+        assertThatThrownBy(() -> service.startImport(new ByteArrayInputStream(new byte[1024]), UserImportService.TEXT_CSV))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageStartingWith("Import file exceeds");
+
+        UserImportJobResponse job = service.startImport(
+                new ByteArrayInputStream("username,email,password,role\n".getBytes()), UserImportService.TEXT_CSV);
+
+        assertThat(job.getStatus()).isEqualTo(Status.RUNNING);
+        for (int i = 0; i < 100 && service.findJob(job.getJobId()).getStatus() == Status.RUNNING; i++) {
+            Thread.sleep(20);
+        }
+        assertThat(service.findJob(job.getJobId()).getStatus()).isEqualTo(Status.COMPLETED);
+    }
+}
@@ -0,0 +1,75 @@
+package vn.com.nws.cms.modules.auth.infrastructure;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AccessTokenDenylistTest {
+
+    private static final Instant CUTOFF = Instant.parse("2026-03-01T08:00:00.500Z");
+
+    private final AccessTokenDenylist denylist = new AccessTokenDenylist(null,
+            new StaticListableBeanFactory().getBeanProvider(RedisMessageListenerContainer.class),
+            new SimpleMeterRegistry(), 1000, 0.001, Duration.ofDays(30));
+
+    @Test
+    void sessionStartedInTheCutoffSecondButAfterItSurvives() {
+        denylist.revokeAllBefore("student1", CUTOFF);
+
+        assertThat(denylist.isRevokedSince("student1", CUTOFF.toEpochMilli() - 1)).isTrue();
+        assertThat(denylist.isRevokedSince("student1", CUTOFF.toEpochMilli())).isFalse();
+        assertThat(denylist.isRevokedSince("student1", CUTOFF.toEpochMilli() + 1)).isFalse();
+        assertThat(denylist.isRevokedSince("student2", CUTOFF.toEpochMilli() - 1)).isFalse();
+    }
+
+    @Test
+    void accessTokensAreComparedByIssuedAt() {
+        denylist.revokeAllBefore("student1", CUTOFF);
+
+        assertThat(denylist.isRevoked("digest", accessToken(CUTOFF.minusSeconds(1)))).isTrue();
+        assertThat(denylist.isRevoked("digest", accessToken(CUTOFF.plusSeconds(1)))).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void revocationMissedOverPubSubIsPickedUpByThePurge() {
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        ZSetOperations<String, Object> zSet = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSet);
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("container", mock(RedisMessageListenerContainer.class));
+        AccessTokenDenylist shared = new AccessTokenDenylist(redisTemplate,
+                beans.getBeanProvider(RedisMessageListenerContainer.class),
+                new SimpleMeterRegistry(), 1000, 0.001, Duration.ofDays(30));
+        Jwt token = accessToken(CUTOFF.plusSeconds(1));
+        // Revoked by another node while this one's listener was disconnected
+        when(zSet.rangeByScoreWithScores(eq("auth:denylist:tokens"), anyDouble(), anyDouble()))
+                .thenReturn(Set.of(TypedTuple.of("digest", (double) Instant.now().plusSeconds(3600).getEpochSecond())));
+        assertThat(shared.isRevoked("digest", token)).isFalse();
+
+        shared.purge();
+
+        assertThat(shared.isRevoked("digest", token)).isTrue();
+    }
+
+    private static Jwt accessToken(Instant issuedAt) {
+        Instant iat = Instant.ofEpochSecond(issuedAt.getEpochSecond());
+        return Jwt.withTokenValue("token").header("alg", "HS256").subject("student1")
+                .issuedAt(iat).expiresAt(iat.plusSeconds(3600)).build();
+    }
+}
@@ -0,0 +1,209 @@
+package vn.com.nws.cms.modules.enrollment.application;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import vn.com.nws.cms.modules.enrollment.domain.model.CourseSection;
+import vn.com.nws.cms.modules.enrollment.domain.model.SeatReservation;
+import vn.com.nws.cms.modules.enrollment.domain.repository.CourseSectionRepository;
+import vn.com.nws.cms.modules.enrollment.domain.repository.SeatInventory;
+import vn.com.nws.cms.modules.enrollment.infrastructure.EnrollmentRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SeatConfirmerTest {
+
+    private final InMemorySeatInventory inventory = new InMemorySeatInventory();
+    private final InMemoryEnrollments database = new InMemoryEnrollments();
+    private final CourseSectionRepository sections = mock(CourseSectionRepository.class);
+
+    @Test
+    void failedSectionIsRetriedUntilTheDatabaseFollowsTheInventory() {
+        SeatConfirmer confirmer = confirmer(1024);
+        load(1, 10);
+        load(2, 10);
+        reserve(confirmer, 1, "alice");
+        reserve(confirmer, 1, "bob");
+        reserve(confirmer, 2, "carol");
+        database.failuresLeft.put(1L, 1);
+
+        confirmer.confirm();
+
+        assertThat(database.holders(1)).isEmpty();
+        assertThat(database.holders(2)).containsExactly("carol");
+
+        // Dropped while the retry was queued: the retry writes the current state, not the original reservation
+        inventory.release(1, "alice");
+        confirmer.submit(1, "alice");
+        confirmer.confirm();
+
+        assertThat(database.holders(1)).containsExactly("bob");
+        assertThat(database.holders(2)).containsExactly("carol");
+    }
+
+    @Test
+    void reconcileRepairsChangesLostToAFullQueue() {
+        // Rounded up to a power of two, so two changes fit
+        SeatConfirmer confirmer = confirmer(2);
+        load(1, 10);
+        database.seed(1, "stale");
+        for (String student : List.of("a", "b", "c", "d")) {
+            reserve(confirmer, 1, student);
+        }
+        confirmer.confirm();
+
+        assertThat(database.holders(1)).containsExactlyInAnyOrder("stale", "a", "b");
+
+        when(sections.findByRegistrationClosesAtAfter(any())).thenReturn(List.of(section(1), section(2)));
+        // Two passes: the queue still only takes two changes at a time
+        confirmer.reconcile();
+        confirmer.confirm();
+        confirmer.reconcile();
+        confirmer.confirm();
+
+        assertThat(database.holders(1)).isEqualTo(inventory.holders(1));
+        assertThat(database.holders(2)).isEmpty();
+    }
+
+    @Test
+    void databaseNeverExceedsCapacityWhenTheInventoryDisagrees() {
+        SeatConfirmer confirmer = confirmer(1024);
+        load(1, 3);
+        database.capacity.put(1L, 2);
+        for (String student : List.of("a", "b", "c")) {
+            reserve(confirmer, 1, student);
+        }
+
+        confirmer.confirm();
+
+        assertThat(database.holders(1)).hasSize(2);
+    }
+
+    private SeatConfirmer confirmer(int queueCapacity) {
+        return new SeatConfirmer(inventory, database, sections, new SimpleMeterRegistry(), queueCapacity, 1000,
+                Duration.ofDays(1));
+    }
+
+    private void load(long sectionId, int capacity) {
+        inventory.load(sectionId, capacity, database.holders(sectionId), Instant.now().plus(Duration.ofDays(1)));
+        database.capacity.putIfAbsent(sectionId, capacity);
+    }
+
+    private void reserve(SeatConfirmer confirmer, long sectionId, String student) {
+        assertThat(inventory.reserve(sectionId, student)).isEqualTo(SeatReservation.RESERVED);
+        confirmer.submit(sectionId, student);
+    }
+
+    private static CourseSection section(long id) {
+        return CourseSection.builder().id(id).build();
+    }
+
+    private static final class InMemorySeatInventory implements SeatInventory {
+
+        private final Map<Long, Integer> capacity = new HashMap<>();
+        private final Map<Long, Set<String>> seats = new HashMap<>();
+
+        @Override
+        public SeatReservation reserve(long sectionId, String student) {
+            Set<String> holders = seats.get(sectionId);
+            if (holders == null) {
+                return SeatReservation.NOT_LOADED;
+            }
+            if (holders.contains(student)) {
+                return SeatReservation.ALREADY_HELD;
+            }
+            if (holders.size() >= capacity.get(sectionId)) {
+                return SeatReservation.FULL;
+            }
+            holders.add(student);
+            return SeatReservation.RESERVED;
+        }
+
+        @Override
+        public boolean release(long sectionId, String student) {
+            return seats.getOrDefault(sectionId, new HashSet<>()).remove(student);
+        }
+
+        @Override
+        public boolean load(long sectionId, int sectionCapacity, Collection<String> holders, Instant expiresAt) {
+            if (seats.containsKey(sectionId)) {
+                return false;
+            }
+            capacity.put(sectionId, sectionCapacity);
+            seats.put(sectionId, new HashSet<>(holders));
+            return true;
+        }
+
+        @Override
+        public boolean isLoaded(long sectionId) {
+            return seats.containsKey(sectionId);
+        }
+
+        @Override
+        public Map<String, Boolean> holding(long sectionId, Collection<String> students) {
+            Set<String> holders = seats.getOrDefault(sectionId, Set.of());
+            Map<String, Boolean> result = new HashMap<>();
+            students.forEach(student -> result.put(student, holders.contains(student)));
+            return result;
+        }
+
+        @Override
+        public Set<String> holders(long sectionId) {
+            return new HashSet<>(seats.getOrDefault(sectionId, Set.of()));
+        }
+    }
+
+    /** Mirrors the capacity-capped statements of {@link EnrollmentRepository#applySeatChanges}. */
+    private static final class InMemoryEnrollments extends EnrollmentRepository {
+
+        private final Map<Long, Integer> capacity = new HashMap<>();
+        private final Map<Long, Set<String>> rows = new HashMap<>();
+        private final Map<Long, Integer> failuresLeft = new HashMap<>();
+
+        InMemoryEnrollments() {
+            super(null);
+        }
+
+        void seed(long sectionId, String student) {
+            rows.computeIfAbsent(sectionId, id -> new HashSet<>()).add(student);
+        }
+
+        Set<String> holders(long sectionId) {
+            return findHolders(sectionId);
+        }
+
+        @Override
+        public int applySeatChanges(long sectionId, Collection<String> enrolled, Collection<String> dropped) {
+            if (failuresLeft.merge(sectionId, -1, Integer::sum) >= 0) {
+                throw new IllegalStateException("Connection reset");
+            }
+            Set<String> section = rows.computeIfAbsent(sectionId, id -> new HashSet<>());
+            section.removeAll(dropped);
+            int notFitting = 0;
+            for (String student : enrolled) {
+                if (!section.contains(student) && section.size() >= capacity.getOrDefault(sectionId, 0)) {
+                    notFitting++;
+                } else {
+                    section.add(student);
+                }
+            }
+            return notFitting;
+        }
+
+        @Override
+        public Set<String> findHolders(long sectionId) {
+            return new HashSet<>(rows.getOrDefault(sectionId, Set.of()));
+        }
+    }
+}
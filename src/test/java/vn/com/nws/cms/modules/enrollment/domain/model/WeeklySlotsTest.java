@@ -0,0 +1,49 @@
+package vn.com.nws.cms.modules.enrollment.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WeeklySlotsTest {
+
+    @Test
+    void overlapsOnlyWhenAPeriodIsShared() {
+        WeeklySlots mondayMorning = WeeklySlots.of(List.of(new SectionMeeting(1, 1, 3)));
+        WeeklySlots mondayLate = WeeklySlots.of(List.of(new SectionMeeting(1, 3, 5)));
+        WeeklySlots mondayAfternoon = WeeklySlots.of(List.of(new SectionMeeting(1, 4, 6)));
+        // Days 5-7 fall in the high word
+        WeeklySlots sunday = WeeklySlots.of(List.of(new SectionMeeting(7, 1, 16)));
+
+        assertThat(mondayMorning.overlaps(mondayLate)).isTrue();
+        assertThat(mondayMorning.overlaps(mondayAfternoon)).isFalse();
+        assertThat(sunday.overlaps(mondayMorning)).isFalse();
+        assertThat(sunday.overlaps(WeeklySlots.of(List.of(new SectionMeeting(7, 16, 16))))).isTrue();
+        assertThat(mondayMorning.union(sunday).overlaps(mondayLate)).isTrue();
+        assertThat(WeeklySlots.EMPTY.overlaps(mondayMorning)).isFalse();
+    }
+
+    @Test
+    void splitsIntoDayMasks() {
+        WeeklySlots slots = WeeklySlots.of(List.of(new SectionMeeting(1, 1, 3), new SectionMeeting(4, 16, 16),
+                new SectionMeeting(5, 2, 2), new SectionMeeting(7, 1, 16)));
+
+        assertThat(slots.day(1)).isEqualTo(0b111);
+        assertThat(slots.day(2)).isZero();
+        assertThat(slots.day(4)).isEqualTo(0x8000);
+        assertThat(slots.day(5)).isEqualTo(0b10);
+        assertThat(slots.day(7)).isEqualTo(0xFFFF);
+    }
+
+    @Test
+    void rejectsMeetingsOutsideTheWeek() {
+        assertThatThrownBy(() -> WeeklySlots.of(List.of(new SectionMeeting(8, 1, 2))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> WeeklySlots.of(List.of(new SectionMeeting(1, 3, 2))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> WeeklySlots.of(List.of(new SectionMeeting(1, 1, 17))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
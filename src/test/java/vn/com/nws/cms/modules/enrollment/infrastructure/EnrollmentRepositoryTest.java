@@ -0,0 +1,110 @@
+package vn.com.nws.cms.modules.enrollment.infrastructure;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Runs the capacity-capped statements of {@code applySeatChanges} on a real Postgres; skipped without Docker. */
+@Testcontainers(disabledWithoutDocker = true)
+class EnrollmentRepositoryTest {
+
+    @Container
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:15-alpine");
+
+    private static final AtomicInteger SECTIONS = new AtomicInteger();
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transaction;
+    private static EnrollmentRepository repository;
+
+    private long sectionId;
+
+    @BeforeAll
+    static void migrate() {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // Stands in for the @Transactional proxy: the row lock must be held across all statements
+        transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        repository = new EnrollmentRepository(jdbcTemplate);
+        IntStream.rangeClosed(1, 50).forEach(i -> jdbcTemplate.update("""
+                INSERT INTO users (username, email, password, role, created_at, updated_at)
+                VALUES (?, ?, 'x', 'ROLE_STUDENT', now(), now())
+                """, "student" + i, "student" + i + "@example.com"));
+    }
+
+    @BeforeEach
+    void createSection() {
+        sectionId = jdbcTemplate.queryForObject("""
+                INSERT INTO course_sections (course_code, section_code, semester, capacity, credits,
+                                             registration_opens_at, registration_closes_at)
+                VALUES ('CS101', ?, '2026-1', 3, 3, now(), now() + interval '1 day')
+                RETURNING id
+                """, Long.class, String.valueOf(SECTIONS.incrementAndGet()));
+    }
+
+    @Test
+    void insertsStopAtCapacity() {
+        assertThat(apply(students(1, 5), List.of())).isEqualTo(2);
+        assertThat(repository.findHolders(sectionId)).containsExactlyInAnyOrderElementsOf(students(1, 3));
+
+        // Students already enrolled are not counted again, and a drop frees a seat in the same batch
+        assertThat(apply(students(1, 3), List.of())).isZero();
+        assertThat(apply(students(4, 4), students(1, 1))).isZero();
+        assertThat(repository.findHolders(sectionId)).containsExactlyInAnyOrderElementsOf(students(2, 4));
+    }
+
+    @Test
+    void concurrentBatchesNeverExceedCapacity() throws Exception {
+        jdbcTemplate.update("UPDATE course_sections SET capacity = 10 WHERE id = ?", sectionId);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            // Eight batches of five distinct students each
+            for (int batch = 0; batch < 8; batch++) {
+                List<String> students = students(batch * 5 + 1, batch * 5 + 5);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return apply(students, List.of());
+                }));
+            }
+            start.countDown();
+        }
+
+        int notFitting = 0;
+        for (Future<Integer> result : results) {
+            notFitting += result.get();
+        }
+        assertThat(repository.findHolders(sectionId)).hasSize(10);
+        assertThat(notFitting).isEqualTo(30);
+    }
+
+    private int apply(Collection<String> enrolled, Collection<String> dropped) {
+        return transaction.execute(status -> repository.applySeatChanges(sectionId, enrolled, dropped));
+    }
+
+    private static List<String> students(int from, int to) {
+        return IntStream.rangeClosed(from, to).mapToObj(i -> "student" + i).toList();
+    }
+}
@@ -0,0 +1,131 @@
+package vn.com.nws.cms.modules.enrollment.infrastructure;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import vn.com.nws.cms.modules.enrollment.domain.model.SeatReservation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Runs {@code reserve-seat.lua} and {@code load-section-seats.lua} on a real Redis; skipped without Docker. */
+@Testcontainers(disabledWithoutDocker = true)
+class RedisSeatInventoryTest {
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisSeatInventory inventory;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        // Same serializers as RedisConfig
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new StringRedisSerializer());
+        template.afterPropertiesSet();
+        inventory = new RedisSeatInventory(template);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void flush() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.serverCommands().flushAll();
+        }
+    }
+
+    @Test
+    void refusesSeatsOnceTheSectionIsFull() {
+        assertThat(inventory.reserve(1, "alice")).isEqualTo(SeatReservation.NOT_LOADED);
+        assertThat(inventory.load(1, 2, List.of(), tomorrow())).isTrue();
+
+        assertThat(inventory.reserve(1, "alice")).isEqualTo(SeatReservation.RESERVED);
+        assertThat(inventory.reserve(1, "bob")).isEqualTo(SeatReservation.RESERVED);
+        assertThat(inventory.reserve(1, "carol")).isEqualTo(SeatReservation.FULL);
+        assertThat(inventory.holders(1)).containsExactlyInAnyOrder("alice", "bob");
+
+        assertThat(inventory.release(1, "alice")).isTrue();
+        assertThat(inventory.release(1, "alice")).isFalse();
+        assertThat(inventory.reserve(1, "carol")).isEqualTo(SeatReservation.RESERVED);
+    }
+
+    @Test
+    void repeatedReservationKeepsOneSeatEvenWhenFull() {
+        inventory.load(1, 1, List.of("alice"), tomorrow());
+
+        assertThat(inventory.reserve(1, "alice")).isEqualTo(SeatReservation.ALREADY_HELD);
+        assertThat(inventory.reserve(1, "bob")).isEqualTo(SeatReservation.FULL);
+        assertThat(inventory.holding(1, List.of("alice", "bob"))).containsEntry("alice", true).containsEntry("bob", false);
+    }
+
+    @Test
+    void firstLoadWins() {
+        assertThat(inventory.load(1, 2, List.of("alice"), tomorrow())).isTrue();
+        assertThat(inventory.load(1, 50, List.of("bob"), tomorrow())).isFalse();
+
+        assertThat(inventory.isLoaded(1)).isTrue();
+        assertThat(inventory.holders(1)).containsExactly("alice");
+        assertThat(inventory.reserve(1, "carol")).isEqualTo(SeatReservation.RESERVED);
+        assertThat(inventory.reserve(1, "dave")).isEqualTo(SeatReservation.FULL);
+    }
+
+    @Test
+    void concurrentReservationsNeverExceedCapacity() throws Exception {
+        int capacity = 10;
+        inventory.load(1, capacity, List.of(), tomorrow());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<SeatReservation>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            // 50 students, each trying four times
+            for (int attempt = 0; attempt < 200; attempt++) {
+                String student = "student" + attempt % 50;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return inventory.reserve(1, student);
+                }));
+            }
+            start.countDown();
+        }
+
+        int reserved = 0;
+        for (Future<SeatReservation> result : results) {
+            if (result.get() == SeatReservation.RESERVED) {
+                reserved++;
+            }
+        }
+        Set<String> holders = inventory.holders(1);
+        assertThat(reserved).isEqualTo(capacity);
+        assertThat(holders).hasSize(capacity);
+    }
+
+    private static Instant tomorrow() {
+        return Instant.now().plus(Duration.ofDays(1));
+    }
+}
@@ -0,0 +1,132 @@
+package vn.com.nws.cms.modules.enrollment.infrastructure;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import vn.com.nws.cms.modules.enrollment.domain.model.CourseSection;
+import vn.com.nws.cms.modules.enrollment.domain.model.ScheduleClash;
+import vn.com.nws.cms.modules.enrollment.domain.model.SectionMeeting;
+import vn.com.nws.cms.modules.enrollment.domain.model.TimetableChange;
+import vn.com.nws.cms.modules.enrollment.domain.repository.CourseSectionRepository;
+import vn.com.nws.cms.modules.enrollment.domain.repository.SeatInventory;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two nodes claiming through {@code claim-timetable.lua} on a real Redis, with pub/sub never delivered, i.e.
+ * each node unaware of the other's claims; skipped without Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ScheduleIndexRedisTest {
+
+    private static final long MONDAY_MORNING = 1;
+    private static final long MONDAY_LATE_MORNING = 2;
+    private static final long TUESDAY = 3;
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisTemplate<String, Object> template;
+
+    private final CourseSectionRepository sections = mock(CourseSectionRepository.class);
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        // Same serializers as RedisConfig
+        template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new StringRedisSerializer());
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(new StringRedisSerializer());
+        template.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void flush() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.serverCommands().flushAll();
+        }
+        section(MONDAY_MORNING, "CS101", new SectionMeeting(1, 1, 3));
+        section(MONDAY_LATE_MORNING, "MA101", new SectionMeeting(1, 3, 5));
+        section(TUESDAY, "PH101", new SectionMeeting(2, 1, 3));
+    }
+
+    @Test
+    void clashingClaimsThroughTwoNodesAdmitOne() {
+        ScheduleIndex first = node();
+        ScheduleIndex second = node();
+
+        assertThat(first.tryAdd("alice", MONDAY_MORNING)).isEqualTo(TimetableChange.ADDED);
+        assertThat(second.tryAdd("alice", MONDAY_LATE_MORNING)).isEqualTo(TimetableChange.CLASH);
+        // The refusal taught the second node about the first node's claim
+        assertThat(second.findClashes("alice", new long[]{MONDAY_LATE_MORNING}))
+                .containsExactly(new ScheduleClash(MONDAY_LATE_MORNING, "MA101-01", MONDAY_MORNING, "CS101-01"));
+        assertThat(second.tryAdd("alice", TUESDAY)).isEqualTo(TimetableChange.ADDED);
+        assertThat(first.tryAdd("alice", TUESDAY)).isEqualTo(TimetableChange.UNCHANGED);
+
+        first.remove("alice", MONDAY_MORNING);
+
+        assertThat(node().tryAdd("alice", MONDAY_LATE_MORNING)).isEqualTo(TimetableChange.ADDED);
+    }
+
+    @Test
+    void lostTimetableIsSeededFromTheLocalIndex() {
+        ScheduleIndex node = node();
+        assertThat(node.tryAdd("alice", MONDAY_MORNING)).isEqualTo(TimetableChange.ADDED);
+        template.delete("enroll:timetable:2026-1:alice");
+
+        assertThat(node.tryAdd("alice", TUESDAY)).isEqualTo(TimetableChange.ADDED);
+
+        assertThat(node().tryAdd("alice", MONDAY_LATE_MORNING)).isEqualTo(TimetableChange.CLASH);
+    }
+
+    private ScheduleIndex node() {
+        // Registered but never started, so published changes are not delivered
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("container", container);
+        ScheduleIndex index = new ScheduleIndex(mock(DataSource.class, RETURNS_DEEP_STUBS),
+                mock(PlatformTransactionManager.class), sections, mock(SeatInventory.class), template,
+                beans.getBeanProvider(RedisMessageListenerContainer.class), new SimpleMeterRegistry(), Duration.ofDays(1));
+        index.rebuild();
+        return index;
+    }
+
+    private void section(long id, String courseCode, SectionMeeting meeting) {
+        CourseSection section = CourseSection.builder().id(id).semester("2026-1").courseCode(courseCode)
+                .sectionCode("01").registrationClosesAt(Instant.now().plus(Duration.ofDays(7))).meetings(List.of(meeting)).build();
+        when(sections.findWithMeetingsById(id)).thenReturn(Optional.of(section));
+    }
+}
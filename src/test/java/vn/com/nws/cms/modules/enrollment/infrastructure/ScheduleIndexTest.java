@@ -0,0 +1,140 @@
+package vn.com.nws.cms.modules.enrollment.infrastructure;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.PlatformTransactionManager;
+import vn.com.nws.cms.common.exception.ServiceUnavailableException;
+import vn.com.nws.cms.modules.enrollment.domain.model.CourseSection;
+import vn.com.nws.cms.modules.enrollment.domain.model.ScheduleClash;
+import vn.com.nws.cms.modules.enrollment.domain.model.SectionMeeting;
+import vn.com.nws.cms.modules.enrollment.domain.model.TimetableChange;
+import vn.com.nws.cms.modules.enrollment.domain.repository.CourseSectionRepository;
+import vn.com.nws.cms.modules.enrollment.domain.repository.SeatInventory;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ScheduleIndexTest {
+
+    private static final long MONDAY_MORNING = 1;
+    private static final long MONDAY_LATE_MORNING = 2;
+    private static final long TUESDAY = 3;
+    private static final long NEXT_SEMESTER_MONDAY = 4;
+
+    private final CourseSectionRepository sections = mock(CourseSectionRepository.class);
+
+    ScheduleIndexTest() {
+        section(MONDAY_MORNING, "2026-1", "CS101", new SectionMeeting(1, 1, 3));
+        section(MONDAY_LATE_MORNING, "2026-1", "MA101", new SectionMeeting(1, 3, 5));
+        section(TUESDAY, "2026-1", "PH101", new SectionMeeting(2, 1, 3));
+        section(NEXT_SEMESTER_MONDAY, "2026-2", "CS102", new SectionMeeting(1, 1, 3));
+    }
+
+    @Test
+    void claimsRefuseClashesUntilTheClashingSectionIsReleased() {
+        ScheduleIndex index = builtIndex();
+
+        assertThat(index.tryAdd("alice", MONDAY_MORNING)).isEqualTo(TimetableChange.ADDED);
+        assertThat(index.tryAdd("alice", MONDAY_MORNING)).isEqualTo(TimetableChange.UNCHANGED);
+        assertThat(index.tryAdd("alice", MONDAY_LATE_MORNING)).isEqualTo(TimetableChange.CLASH);
+        assertThat(index.tryAdd("alice", TUESDAY)).isEqualTo(TimetableChange.ADDED);
+        assertThat(index.tryAdd("alice", NEXT_SEMESTER_MONDAY)).isEqualTo(TimetableChange.ADDED);
+        assertThat(index.tryAdd("bob", MONDAY_LATE_MORNING)).isEqualTo(TimetableChange.ADDED);
+
+        index.remove("alice", MONDAY_MORNING);
+
+        assertThat(index.tryAdd("alice", MONDAY_LATE_MORNING)).isEqualTo(TimetableChange.ADDED);
+        assertThat(index.tryAdd("alice", MONDAY_MORNING)).isEqualTo(TimetableChange.CLASH);
+    }
+
+    @Test
+    void concurrentClaimsOfClashingSectionsAdmitOne() throws Exception {
+        ScheduleIndex index = builtIndex();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<TimetableChange>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int attempt = 0; attempt < 100; attempt++) {
+                long sectionId = attempt % 2 == 0 ? MONDAY_MORNING : MONDAY_LATE_MORNING;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return index.tryAdd("alice", sectionId);
+                }));
+            }
+            start.countDown();
+        }
+
+        int added = 0;
+        for (Future<TimetableChange> result : results) {
+            if (result.get() == TimetableChange.ADDED) {
+                added++;
+            }
+        }
+        assertThat(added).isEqualTo(1);
+    }
+
+    @Test
+    void changesFromOtherNodesAreApplied() {
+        ScheduleIndex index = builtIndex();
+
+        index.onMessage(message("+|" + MONDAY_MORNING + "|alice"), null);
+        assertThat(index.tryAdd("alice", MONDAY_LATE_MORNING)).isEqualTo(TimetableChange.CLASH);
+        assertThat(index.findClashes("alice", new long[]{MONDAY_LATE_MORNING, TUESDAY}))
+                .containsExactly(new ScheduleClash(MONDAY_LATE_MORNING, "MA101-01", MONDAY_MORNING, "CS101-01"));
+
+        index.onMessage(message("-|" + MONDAY_MORNING + "|alice"), null);
+        assertThat(index.tryAdd("alice", MONDAY_LATE_MORNING)).isEqualTo(TimetableChange.ADDED);
+    }
+
+    @Test
+    void refusesClaimsBeforeTheFirstBuild() {
+        ScheduleIndex index = index();
+
+        assertThat(index.isReady()).isFalse();
+        assertThatThrownBy(() -> index.tryAdd("alice", MONDAY_MORNING)).isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    /** An index built from an empty database; sections are then loaded on first use. */
+    private ScheduleIndex builtIndex() {
+        ScheduleIndex index = index();
+        index.rebuild();
+        assertThat(index.isReady()).isTrue();
+        return index;
+    }
+
+    private ScheduleIndex index() {
+        // Every query returns a result set whose next() is false
+        DataSource emptyDatabase = mock(DataSource.class, RETURNS_DEEP_STUBS);
+        return new ScheduleIndex(emptyDatabase, mock(PlatformTransactionManager.class), sections,
+                mock(SeatInventory.class), null,
+                new StaticListableBeanFactory().getBeanProvider(RedisMessageListenerContainer.class),
+                new SimpleMeterRegistry(), Duration.ofDays(1));
+    }
+
+    private void section(long id, String semester, String courseCode, SectionMeeting meeting) {
+        CourseSection section = CourseSection.builder().id(id).semester(semester).courseCode(courseCode)
+                .sectionCode("01").registrationClosesAt(Instant.now().plus(Duration.ofDays(7))).meetings(List.of(meeting)).build();
+        when(sections.findWithMeetingsById(id)).thenReturn(Optional.of(section));
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(ScheduleIndex.CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,36 @@
+package vn.com.nws.cms.modules.grading.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GradeScaleTest {
+
+    @Test
+    void convertsBandBoundaries() {
+        assertThat(GradeScale.gradePoints(100)).isEqualTo(40);
+        assertThat(GradeScale.gradePoints(85)).isEqualTo(40);
+        assertThat(GradeScale.gradePoints(84)).isEqualTo(35);
+        assertThat(GradeScale.gradePoints(70)).isEqualTo(30);
+        assertThat(GradeScale.gradePoints(69)).isEqualTo(25);
+        assertThat(GradeScale.gradePoints(55)).isEqualTo(20);
+        assertThat(GradeScale.gradePoints(50)).isEqualTo(15);
+        assertThat(GradeScale.gradePoints(40)).isEqualTo(10);
+        assertThat(GradeScale.gradePoints(39)).isZero();
+        assertThat(GradeScale.letter(80)).isEqualTo("B+");
+        assertThat(GradeScale.letter(0)).isEqualTo("F");
+        assertThatThrownBy(() -> GradeScale.gradePoints(101)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void weightsGpaByCredits() {
+        // 3 credits of A (8.5) and 2 credits of C (6.0): (3 x 4.0 + 2 x 2.0) / 5 = 3.20
+        GpaSummary summary = new GpaSummary(5, GradeScale.qualityPoints(3, 85) + GradeScale.qualityPoints(2, 60));
+
+        assertThat(summary.gpa()).isEqualByComparingTo(new BigDecimal("3.20"));
+        assertThat(GpaSummary.EMPTY.gpa()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,65 @@
+package vn.com.nws.cms.modules.reporting.domain.model;
+
+import org.junit.jupiter.api.Test;
+import vn.com.nws.cms.modules.reporting.domain.model.RollupTable.Rollup;
+import vn.com.nws.cms.modules.reporting.domain.model.RollupTable.SectionRollup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class RollupTableTest {
+
+    private static final Instant T0 = Instant.parse("2026-09-01T00:00:00Z");
+
+    private final RollupTable table = RollupTable.of(List.of(
+            section(1, "2026-1", "CS101", "01", 100, 90, 10, 20, 0, 0, 0, 0, 0, 5),
+            section(2, "2026-1", "CS101", "02", 60, 60, 0, 0, 30, 0, 0, 0, 0, 15),
+            section(3, "2026-1", "MA201", "01", 40, 35, 0, 0, 0, 0, 0, 0, 0, 0),
+            section(4, "2025-2", "CS101", "01", 80, 70, 70, 0, 0, 0, 0, 0, 0, 0)), T0);
+
+    @Test
+    void rollsUpSectionsByCourseAndSemester() {
+        List<Rollup> courses = table.byCourse("2026-1");
+
+        assertThat(courses).extracting(Rollup::courseCode).containsExactly("CS101", "MA201");
+        Rollup cs101 = courses.getFirst();
+        assertThat(cs101.sections()).isEqualTo(2);
+        assertThat(cs101.enrolled()).isEqualTo(150);
+        assertThat(cs101.graded()).isEqualTo(80);
+        assertThat(cs101.passed()).isEqualTo(60);
+        assertThat(table.bySemester()).extracting(Rollup::semester, Rollup::capacity)
+                .containsExactly(tuple("2025-2", 80L), tuple("2026-1", 200L));
+        assertThat(table.bySection("2026-1", "CS101")).extracting(Rollup::sectionCode).containsExactly("01", "02");
+        assertThat(table.byCourse("1999-1")).isEmpty();
+    }
+
+    @Test
+    void replacesChangedSectionsAndSurvivesASnapshot() throws IOException {
+        RollupTable refreshed = table.with(List.of(
+                section(3, "2026-1", "MA201", "01", 40, 38, 0, 0, 0, 0, 0, 0, 0, 0),
+                section(5, "2026-1", "MA201", "02", 40, 12, 0, 0, 0, 0, 0, 0, 0, 0)), T0.plusSeconds(60));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        refreshed.writeTo(new DataOutputStream(bytes));
+        RollupTable restored = RollupTable.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(restored.size()).isEqualTo(5);
+        assertThat(restored.refreshedAt()).isEqualTo(T0.plusSeconds(60));
+        assertThat(restored.fullRefreshAt()).isEqualTo(T0);
+        assertThat(restored.byCourse("2026-1")).extracting(Rollup::courseCode, Rollup::enrolled)
+                .containsExactly(tuple("CS101", 150L), tuple("MA201", 50L));
+    }
+
+    private static SectionRollup section(long id, String semester, String course, String section, int capacity,
+                                         int enrolled, int... grades) {
+        return new SectionRollup(id, semester, course, section, capacity, enrolled, grades);
+    }
+}